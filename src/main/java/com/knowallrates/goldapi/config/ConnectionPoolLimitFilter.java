@@ -0,0 +1,111 @@
+package com.knowallrates.goldapi.config;
+
+import com.knowallrates.goldapi.service.EmailOutboxService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Caps requests in flight at the database connections left for them. With virtual threads Tomcat accepts
+// thousands of concurrent requests; without a cap they would all queue inside Hikari and fail after
+// connection-timeout. Here the excess parks cheaply on a fair semaphore and gets a 503 if no slot frees up
+// in time. Requests share the pool with background users: the email outbox workers, scheduled jobs (cart
+// flush and reconciliation, rate backfill, search rebuild) and hot-coupon block claims, which take a second
+// connection in REQUIRES_NEW. Those are reserved out of the pool size; if the pool is too small to leave
+// room for them the cap only limits queueing and cannot keep the pool from running dry.
+// Enabled by the vthreads profile (app.concurrency.limit.enabled).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.concurrency.limit.enabled", havingValue = "true")
+public class ConnectionPoolLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolLimitFilter.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    // 0 = size from the Hikari pool
+    @Value("${app.concurrency.max-in-flight:0}")
+    private int maxInFlight;
+
+    @Value("${app.concurrency.acquire-timeout-ms:10000}")
+    private long acquireTimeoutMs;
+
+    // Connections kept for background users when sizing from the pool; -1 = outbox workers + 2 (one for
+    // scheduled jobs, one for a coupon block claim)
+    @Value("${app.concurrency.reserved-connections:-1}")
+    private int reservedConnections;
+
+    // Each outbox worker holds a connection while it records a send
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        int limit = maxInFlight;
+        if (limit <= 0) {
+            // Open-in-view keeps a connection for the whole request once it touches the database
+            int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+            int reserved = reservedConnections >= 0 ? reservedConnections : emailOutboxService.getWorkers() + 2;
+            limit = poolSize - reserved;
+            if (limit < 1) {
+                log.warn("Connection pool of {} leaves no room for requests after {} background connections; "
+                        + "raise spring.datasource.hikari.maximum-pool-size or lower app.email.outbox.workers", poolSize, reserved);
+                limit = 1;
+            }
+        }
+        permits = new Semaphore(limit, true);
+        log.info("Request concurrency limited to {} in flight", limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // Static images never touch the database, and the SSE stream is left out of open-in-view
+        // (OpenInViewConfig) and reads the in-memory snapshot, so neither holds a connection
+        return path.equals("/api/rate/stream") || path.startsWith("/api/uploads/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Server busy, please retry\"}");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
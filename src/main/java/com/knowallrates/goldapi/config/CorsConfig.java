@@ -8,6 +8,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.List;
@@ -15,12 +17,14 @@ import java.util.List;
 @Configuration
 public class CorsConfig implements WebMvcConfigurer {
 
+    private static final Logger log = LoggerFactory.getLogger(CorsConfig.class);
+
     @Value("${app.cors.allowed-origins:*}")
     private String allowedOrigins;
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        System.out.println("CORS Configuration - Allowed Origins: " + allowedOrigins);
+        log.info("CORS Configuration - Allowed Origins: {}", allowedOrigins);
 
         registry.addMapping("/**")
                 .allowedOriginPatterns("*") // Allow all origins for now
@@ -0,0 +1,25 @@
+package com.knowallrates.goldapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Replaces Boot's open-in-view (spring.jpa.open-in-view=false) with the same interceptor on every path
+// except the SSE rate stream. Hibernate holds a connection until the request's EntityManager closes, and
+// for an SSE request that is when the emitter completes, so each subscriber would pin a pool connection.
+@Configuration
+public class OpenInViewConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/api/rate/stream");
+    }
+}
@@ -0,0 +1,47 @@
+package com.knowallrates.goldapi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One summary line per request (method, path, status, duration) for a sample of requests.
+// DEBUG on this logger logs every request; the default rate keeps the console quiet under load.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestSamplingLogFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSamplingLogFilter.class);
+
+    @Value("${app.logging.request-sample-rate:0.01}")
+    private double sampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean sampled = log.isDebugEnabled()
+                || (sampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        if (!sampled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log.info("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.knowallrates.goldapi.config;
 
 import com.knowallrates.goldapi.model.User;
 import com.knowallrates.goldapi.security.JwtAuthenticationFilter;
+import com.knowallrates.goldapi.security.PublicEndpoints;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,6 +33,20 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter();
     }
 
+    // The filter runs inside the security chain only; without this Boot also registers it as a servlet filter
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Public rate data and product images skip the security filter chain entirely
+    @Bean
+    public WebSecurityCustomizer webSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers(PublicEndpoints.UNSECURED_MATCHER);
+    }
+
     // Add this bean to handle role prefixing
     @Bean
     public GrantedAuthoritiesMapper grantedAuthoritiesMapper() {
@@ -46,8 +63,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configure(http))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/signin", "/api/auth/signup", "/api/rate/**", "/api/health", "/api/auth/forgot-password", "/api/auth/reset-password", "/api/auth/verify-reset-token/**").permitAll()
-                        .requestMatchers("/health", "/", "/api/rate/health", "/h2-console/**","/api/uploads/products/**").permitAll()
+                        .requestMatchers(PublicEndpoints.PERMIT_ALL).permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/auth/profile","/api/shop/cart/**","/api/orders","/api/shop/orders/**","/api/shop").authenticated()
                         .anyRequest().authenticated()
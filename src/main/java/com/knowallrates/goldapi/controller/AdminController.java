@@ -1,14 +1,24 @@
 package com.knowallrates.goldapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowallrates.goldapi.dto.CouponRequest;
+import com.knowallrates.goldapi.dto.EmailOutboxStats;
+import com.knowallrates.goldapi.dto.MailDispatcherStats;
 import com.knowallrates.goldapi.dto.ProductRequest;
 import com.knowallrates.goldapi.dto.ProductResponse;
+import com.knowallrates.goldapi.dto.RateImportResponse;
 import com.knowallrates.goldapi.dto.UpdateRateRequest;
 import com.knowallrates.goldapi.model.Asset;
+import com.knowallrates.goldapi.model.Coupon;
 import com.knowallrates.goldapi.model.GoldRate;
 import com.knowallrates.goldapi.model.Product;
 import com.knowallrates.goldapi.service.AdminService;
+import com.knowallrates.goldapi.service.CouponCache;
+import com.knowallrates.goldapi.service.CouponService;
+import com.knowallrates.goldapi.service.EmailOutboxService;
+import com.knowallrates.goldapi.service.MailDispatcher;
 import com.knowallrates.goldapi.service.ProductService;
+import com.knowallrates.goldapi.service.RateImportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,8 +27,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,12 +40,29 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AdminController {
 
+    private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+
     @Autowired
     private AdminService adminService;
 
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private RateImportService rateImportService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponCache couponCache;
+
     @Autowired
     private ObjectMapper objectMapper; // For deserializing JSON part of multipart request
 
@@ -41,17 +71,16 @@ public class AdminController {
     @CrossOrigin(origins = "*")
     public ResponseEntity<List<Asset>> getAvailableAssets() {
         try {
-            System.out.println("GET /api/admin/assets - Request received");
+            log.debug("GET /api/admin/assets - Request received");
             List<Asset> assets = adminService.getAvailableAssets();
-            System.out.println("GET /api/admin/assets - Found " + assets.size() + " assets");
+            log.debug("GET /api/admin/assets - Found {} assets", assets.size());
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(assets);
         } catch (Exception e) {
-            System.err.println("Error in getAvailableAssets: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getAvailableAssets", e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -61,26 +90,163 @@ public class AdminController {
     @CrossOrigin(origins = "*")
     public ResponseEntity<GoldRate> updateTodayRate(@Valid @RequestBody UpdateRateRequest request) {
         try {
-            System.out.println("POST /api/admin/rates/update - Request received: " + request);
+            log.debug("POST /api/admin/rates/update - Request received: {}", request);
             GoldRate updatedRate = adminService.updateTodayRate(request);
-            System.out.println("POST /api/admin/rates/update - Rate updated: " + updatedRate);
+            log.debug("POST /api/admin/rates/update - Rate updated: {}", updatedRate);
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(updatedRate);
         } catch (Exception e) {
-            System.err.println("Error in updateTodayRate: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in updateTodayRate", e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping(value = "/rates/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<RateImportResponse> importRates(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) {
+        try {
+            RateImportService.Format importFormat =
+                    RateImportService.detectFormat(format, file.getOriginalFilename(), file.getContentType());
+            log.debug("POST /api/admin/rates/import - {} ({} bytes, {})", file.getOriginalFilename(), file.getSize(), importFormat);
+            RateImportResponse response = rateImportService.importRates(file.getInputStream(), importFormat);
+            log.debug("POST /api/admin/rates/import - Imported {}/{} rows in {} ms ({} rows/s)", response.getImportedRows(), response.getTotalRows(), response.getDurationMs(), response.getRowsPerSecond());
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(response);
+        } catch (Exception e) {
+            log.error("Error in importRates", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/email-outbox/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<EmailOutboxStats> getEmailOutboxStats() {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(emailOutboxService.getStats());
+        } catch (Exception e) {
+            log.error("Error in getEmailOutboxStats", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/mail/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<MailDispatcherStats> getMailDispatcherStats() {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(mailDispatcher.getStats());
+        } catch (Exception e) {
+            log.error("Error in getMailDispatcherStats", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/coupons")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<List<Coupon>> getAllCoupons() {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(couponService.getAllCoupons());
+        } catch (Exception e) {
+            log.error("Error in getAllCoupons", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PostMapping("/coupons")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Coupon> createCoupon(@Valid @RequestBody CouponRequest request) {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(couponService.createCoupon(request));
+        } catch (Exception e) {
+            log.error("Error in createCoupon: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PutMapping("/coupons/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Coupon> updateCoupon(@PathVariable Long id, @Valid @RequestBody CouponRequest request) {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(couponService.updateCoupon(id, request));
+        } catch (Exception e) {
+            log.error("Error in updateCoupon {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/coupons/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Void> deactivateCoupon(@PathVariable Long id) {
+        try {
+            couponService.deactivateCoupon(id);
+            return ResponseEntity.noContent()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .build();
+        } catch (Exception e) {
+            log.error("Error in deactivateCoupon {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    // For coupons edited directly in the database; admin API changes reload on their own
+    @PostMapping("/coupons/refresh-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> refreshCouponCache() {
+        try {
+            couponCache.refresh();
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(Map.of("activeCoupons", couponCache.size()));
+        } catch (Exception e) {
+            log.error("Error in refreshCouponCache", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('ADMIN')")
     @CrossOrigin(origins = "*")
     public ResponseEntity<String> getAdminDashboard() {
-        System.out.println("GET /api/admin/dashboard - Request received");
+        log.debug("GET /api/admin/dashboard - Request received");
         return ResponseEntity.ok()
                 .header("Access-Control-Allow-Origin", "*")
                 .body("Admin Dashboard Access Granted");
@@ -114,8 +280,7 @@ public class AdminController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(convertToProductResponse(product));
         } catch (Exception e) {
-            System.err.println("Error in createProduct: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in createProduct", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
@@ -137,8 +302,7 @@ public class AdminController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(convertToProductResponse(product));
         } catch (Exception e) {
-            System.err.println("Error in updateProduct: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in updateProduct", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
@@ -155,8 +319,7 @@ public class AdminController {
                     .header("Access-Control-Allow-Headers", "*")
                     .build();
         } catch (Exception e) {
-            System.err.println("Error in deleteProduct: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in deleteProduct", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -173,8 +336,7 @@ public class AdminController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(convertToProductResponse(product));
         } catch (Exception e) {
-            System.err.println("Error in toggleProductStatus: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in toggleProductStatus", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
@@ -197,7 +359,7 @@ public class AdminController {
                     .body(response);
 
         } catch (Exception e) {
-            System.err.println("Error in getAllProductsForAdmin: " + e.getMessage());
+            log.error("Error in getAllProductsForAdmin: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -236,7 +398,7 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
-            System.err.println("Error in getProduct: " + e.getMessage());
+            log.error("Error in getProduct: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -251,7 +413,7 @@ public class AdminController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(product);
         } catch (Exception e) {
-            System.err.println("Error in updateProduct: " + e.getMessage());
+            log.error("Error in updateProduct: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
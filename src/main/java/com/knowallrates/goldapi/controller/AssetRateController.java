@@ -4,32 +4,53 @@ import com.knowallrates.goldapi.dto.AllRatesResponse;
 import com.knowallrates.goldapi.dto.HistoryResponse;
 import com.knowallrates.goldapi.service.AssetRateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/rates")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AssetRateController {
 
+    private static final Logger log = LoggerFactory.getLogger(AssetRateController.class);
+
+    // History is served from the in-memory series store, so multi-year windows are cheap
+    private static final int MAX_HISTORY_DAYS = 3650;
+
     @Autowired
     private AssetRateService assetRateService;
 
     @GetMapping("/all")
     @CrossOrigin(origins = "*")
-    public ResponseEntity<AllRatesResponse> getAllRates() {
+    public ResponseEntity<AllRatesResponse> getAllRates(WebRequest webRequest) {
         try {
-            System.out.println("GET /api/rates/all - Request received");
+            log.debug("GET /api/rates/all - Request received");
             AllRatesResponse response = assetRateService.getAllTodayRates();
-            System.out.println("GET /api/rates/all - Response: " + response.getRates().size() + " rates");
+            String etag = RateCacheHeaders.etag("all", response.getDate(), response.getRates().size(),
+                    response.getTimestamp());
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(RateCacheHeaders.PRIVATE_LATEST)
+                        .header("Access-Control-Allow-Origin", "*")
+                        .build();
+            }
+            log.debug("GET /api/rates/all - Response: {} rates", response.getRates().size());
             return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(RateCacheHeaders.PRIVATE_LATEST)
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in getAllRates: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getAllRates", e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -38,24 +59,36 @@ public class AssetRateController {
     @CrossOrigin(origins = "*")
     public ResponseEntity<HistoryResponse> getAssetHistory(
             @PathVariable String assetName,
-            @RequestParam(defaultValue = "10") int days) {
+            @RequestParam(defaultValue = "10") int days,
+            WebRequest webRequest) {
         try {
-            System.out.println("GET /api/rates/" + assetName + "/history - Request received with days: " + days);
-            if (days < 1 || days > 365) {
+            log.debug("GET /api/rates/{}/history - Request received with days: {}", assetName, days);
+            if (days < 1 || days > MAX_HISTORY_DAYS) {
                 return ResponseEntity.badRequest().build();
             }
 
+            // Version check first: a revalidation never touches the series
+            String etag = RateCacheHeaders.etag("history", assetName, days, LocalDate.now(),
+                    assetRateService.getAssetHistoryVersion(assetName));
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(RateCacheHeaders.PRIVATE_HISTORY)
+                        .header("Access-Control-Allow-Origin", "*")
+                        .build();
+            }
+
             HistoryResponse response = assetRateService.getAssetHistory(assetName, days);
-            System.out.println("GET /api/rates/" + assetName + "/history - Response size: " +
-                    (response.getRates() != null ? response.getRates().size() : 0));
+            log.debug("GET /api/rates/{}/history - Response size: {}", assetName, (response.getRates() != null ? response.getRates().size() : 0));
             return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(RateCacheHeaders.PRIVATE_HISTORY)
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in getAssetHistory: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getAssetHistory", e);
             return ResponseEntity.internalServerError().build();
         }
     }
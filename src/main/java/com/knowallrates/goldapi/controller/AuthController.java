@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 
@@ -16,6 +18,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
 
@@ -27,18 +31,16 @@ public class AuthController {
     @CrossOrigin(origins = "*")
     public ResponseEntity<AuthResponse> signUp(@Valid @RequestBody SignUpRequest request) {
         try {
-            System.out.println("POST /api/auth/signup - Request received for email: " + request.getEmail());
+            log.debug("POST /api/auth/signup - Request received for email: {}", request.getEmail());
             AuthResponse response = userService.signUp(request);
-            System.out.println("POST /api/auth/signup - User created successfully with token: " +
-                    response.getToken().substring(0, Math.min(20, response.getToken().length())) + "...");
+            log.debug("POST /api/auth/signup - User created successfully");
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in signUp: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in signUp", e);
             return ResponseEntity.badRequest()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(new AuthResponse()); // Return empty response on error
@@ -49,11 +51,10 @@ public class AuthController {
     @CrossOrigin(origins = "*")
     public ResponseEntity<AuthResponse> signIn(@Valid @RequestBody AuthRequest request) {
         try {
-            System.out.println("POST /api/auth/signin - Request received for email: " + request.getEmail());
+            log.debug("POST /api/auth/signin - Request received for email: {}", request.getEmail());
             AuthResponse response = userService.signIn(request);
-            System.out.println("POST /api/auth/signin - User signed in successfully");
-            System.out.println("Generated token: " + response.getToken().substring(0, Math.min(50, response.getToken().length())) + "...");
-            System.out.println("User role: " + response.getUser().getRole());
+            log.debug("POST /api/auth/signin - User signed in successfully");
+            log.debug("User role: {}", response.getUser().getRole());
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
@@ -61,8 +62,7 @@ public class AuthController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in signIn: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in signIn", e);
             return ResponseEntity.badRequest()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(new AuthResponse()); // Return empty response on error
@@ -73,16 +73,16 @@ public class AuthController {
     @CrossOrigin(origins = "*")
     public ResponseEntity<AuthResponse.UserProfile> getProfile(Authentication authentication) {
         try {
-            System.out.println("GET /api/auth/profile - Request received");
+            log.debug("GET /api/auth/profile - Request received");
             if (authentication == null || authentication.getName() == null) {
-                System.err.println("GET /api/auth/profile - No authentication found");
+                log.warn("GET /api/auth/profile - No authentication found");
                 return ResponseEntity.status(401).build();
             }
 
             String email = authentication.getName();
-            System.out.println("GET /api/auth/profile - Getting profile for: " + email);
+            log.debug("GET /api/auth/profile - Getting profile for: {}", email);
             AuthResponse.UserProfile profile = userService.getProfile(email);
-            System.out.println("GET /api/auth/profile - Profile retrieved successfully");
+            log.debug("GET /api/auth/profile - Profile retrieved successfully");
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
@@ -90,8 +90,7 @@ public class AuthController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(profile);
         } catch (Exception e) {
-            System.err.println("Error in getProfile: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getProfile", e);
             return ResponseEntity.status(500)
                     .header("Access-Control-Allow-Origin", "*")
                     .build();
@@ -104,16 +103,16 @@ public class AuthController {
             @Valid @RequestBody UpdateProfileRequest updateProfileRequest,
             Authentication authentication) {
         try {
-            System.out.println("PUT /api/auth/profile - Request received");
+            log.debug("PUT /api/auth/profile - Request received");
             if (authentication == null || authentication.getName() == null) {
-                System.err.println("PUT /api/auth/profile - No authentication found");
+                log.warn("PUT /api/auth/profile - No authentication found");
                 return ResponseEntity.status(401).build();
             }
 
             String email = authentication.getName();
-            System.out.println("PUT /api/auth/profile - Updating profile for: " + email);
+            log.debug("PUT /api/auth/profile - Updating profile for: {}", email);
             AuthResponse.UserProfile profile = userService.updateProfile(email, updateProfileRequest);
-            System.out.println("PUT /api/auth/profile - Profile updated successfully");
+            log.debug("PUT /api/auth/profile - Profile updated successfully");
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
@@ -121,8 +120,7 @@ public class AuthController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(profile);
         } catch (Exception e) {
-            System.err.println("Error in updateProfile: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in updateProfile", e);
             return ResponseEntity.status(500)
                     .header("Access-Control-Allow-Origin", "*")
                     .build();
@@ -132,7 +130,7 @@ public class AuthController {
     @PostMapping("/signout")
     @CrossOrigin(origins = "*")
     public ResponseEntity<String> signOut() {
-        System.out.println("POST /api/auth/signout - Request received");
+        log.debug("POST /api/auth/signout - Request received");
         return ResponseEntity.ok()
                 .header("Access-Control-Allow-Origin", "*")
                 .body("Signed out successfully");
@@ -153,16 +151,15 @@ public class AuthController {
     @PostMapping("/forgot-password")
     public ResponseEntity<Map<String, String>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
         try {
-            System.out.println("POST /api/auth/forgot-password - Request received for: " + request.getEmail());
+            log.debug("POST /api/auth/forgot-password - Request received for: {}", request.getEmail());
             String message = passwordResetService.initiatePasswordReset(request.getEmail());
-            System.out.println("POST /api/auth/forgot-password - Response: " + message);
+            log.debug("POST /api/auth/forgot-password - Response: {}", message);
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(Map.of("message", message));
         } catch (Exception e) {
-            System.err.println("Error in forgotPassword: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in forgotPassword", e);
             return ResponseEntity.badRequest()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(Map.of("message", "Failed to process password reset request"));
@@ -172,17 +169,15 @@ public class AuthController {
     @PostMapping("/reset-password")
     public ResponseEntity<Map<String, String>> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
         try {
-            System.out.println("POST /api/auth/reset-password - Request received with token: " +
-                    request.getToken().substring(0, 10) + "...");
+            log.debug("POST /api/auth/reset-password - Request received");
             String message = passwordResetService.resetPassword(request.getToken(), request.getNewPassword());
-            System.out.println("POST /api/auth/reset-password - Success: " + message);
+            log.debug("POST /api/auth/reset-password - Success: {}", message);
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(Map.of("message", message));
         } catch (Exception e) {
-            System.err.println("Error in resetPassword: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in resetPassword", e);
             return ResponseEntity.badRequest()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(Map.of("message", e.getMessage()));
@@ -192,16 +187,15 @@ public class AuthController {
     @GetMapping("/verify-reset-token/{token}")
     public ResponseEntity<Map<String, Object>> verifyResetToken(@PathVariable String token) {
         try {
-            System.out.println("GET /api/auth/verify-reset-token - Verifying token: " + token.substring(0, 10) + "...");
+            log.debug("GET /api/auth/verify-reset-token - Verifying token");
             boolean isValid = passwordResetService.verifyResetToken(token);
-            System.out.println("GET /api/auth/verify-reset-token - Token valid: " + isValid);
+            log.debug("GET /api/auth/verify-reset-token - Token valid: {}", isValid);
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(Map.of("valid", isValid));
         } catch (Exception e) {
-            System.err.println("Error in verifyResetToken: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in verifyResetToken", e);
             return ResponseEntity.badRequest()
                     .header("Access-Control-Allow-Origin", "*")
                     .body(Map.of("valid", false, "message", e.getMessage()));
@@ -1,11 +1,13 @@
 package com.knowallrates.goldapi.controller;
 
 import com.knowallrates.goldapi.dto.CartResponse;
-import com.knowallrates.goldapi.service.CartService;
+import com.knowallrates.goldapi.service.CartEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 
@@ -14,8 +16,11 @@ import java.util.Map;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class CartController {
 
+    private static final Logger log = LoggerFactory.getLogger(CartController.class);
+
+    // CartService, or MemoryCartEngine when app.cart.engine=memory
     @Autowired
-    private CartService cartService;
+    private CartEngine cartService;
 
     @GetMapping
     @CrossOrigin(origins = "*")
@@ -32,7 +37,7 @@ public class CartController {
                     .header("Access-Control-Allow-Headers", "*")
                     .body(cart);
         } catch (Exception e) {
-            System.err.println("Error in getCart: " + e.getMessage());
+            log.error("Error in getCart: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -59,7 +64,7 @@ public class CartController {
 
                     .body(cart);
         } catch (Exception e) {
-            System.err.println("Error in addToCart: " + e.getMessage());
+            log.error("Error in addToCart: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -82,7 +87,7 @@ public class CartController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(cart);
         } catch (Exception e) {
-            System.err.println("Error in updateCartItem: " + e.getMessage());
+            log.error("Error in updateCartItem: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -102,7 +107,7 @@ public class CartController {
                     .header("Access-Control-Allow-Origin", "*")
                     .build();
         } catch (Exception e) {
-            System.err.println("Error in removeFromCart: " + e.getMessage());
+            log.error("Error in removeFromCart: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -120,7 +125,7 @@ public class CartController {
                     .header("Access-Control-Allow-Origin", "*")
                     .build();
         } catch (Exception e) {
-            System.err.println("Error in clearCart: " + e.getMessage());
+            log.error("Error in clearCart: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -6,36 +6,62 @@ import com.knowallrates.goldapi.dto.TodayRateResponse;
 import com.knowallrates.goldapi.dto.TodayRateResponse;
 import com.knowallrates.goldapi.service.GoldRateService;
 import com.knowallrates.goldapi.service.AssetRateService;
+import com.knowallrates.goldapi.service.RateStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/rate")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class GoldRateController {
 
+    private static final Logger log = LoggerFactory.getLogger(GoldRateController.class);
+
+    // History is served from the in-memory series store, so multi-year windows are cheap
+    private static final int MAX_HISTORY_DAYS = 3650;
+
     @Autowired
     private GoldRateService goldRateService;
 
     @Autowired
     private AssetRateService assetRateService;
 
+    @Autowired
+    private RateStreamService rateStreamService;
+
     @GetMapping("/today")
     @CrossOrigin(origins = "*")
-    public ResponseEntity<TodayRateResponse> getTodayRates() {
+    public ResponseEntity<TodayRateResponse> getTodayRates(WebRequest webRequest) {
         try {
-            System.out.println("GET /api/rate/today - Request received");
+            log.debug("GET /api/rate/today - Request received");
             TodayRateResponse response = goldRateService.getTodayRates();
-            System.out.println("GET /api/rate/today - Response: " + response);
+            String etag = RateCacheHeaders.etag("today", response.getDate(), response.getTimestamp());
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(RateCacheHeaders.LATEST)
+                        .header("Access-Control-Allow-Origin", "*")
+                        .build();
+            }
+            log.debug("GET /api/rate/today - Response: {}", response);
             return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(RateCacheHeaders.LATEST)
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in getTodayRates: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getTodayRates", e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -43,52 +69,93 @@ public class GoldRateController {
     @GetMapping("/history")
     @CrossOrigin(origins = "*")
     public ResponseEntity<HistoryResponse> getHistoricalRates(
-            @RequestParam(defaultValue = "10") int days) {
+            @RequestParam(defaultValue = "10") int days,
+            WebRequest webRequest) {
         try {
-            System.out.println("GET /api/rate/history - Request received with days: " + days);
-            if (days < 1 || days > 365) {
+            log.debug("GET /api/rate/history - Request received with days: {}", days);
+            if (days < 1 || days > MAX_HISTORY_DAYS) {
                 return ResponseEntity.badRequest().build();
             }
 
+            // Version check first: a revalidation never touches the series
+            String etag = RateCacheHeaders.etag("history", days, LocalDate.now(), goldRateService.getHistoryVersion());
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(RateCacheHeaders.HISTORY)
+                        .header("Access-Control-Allow-Origin", "*")
+                        .build();
+            }
+
             HistoryResponse response = goldRateService.getHistoricalRates(days);
-            System.out.println("GET /api/rate/history - Response size: " +
-                    (response.getRates() != null ? response.getRates().size() : 0));
+            log.debug("GET /api/rate/history - Response size: {}", (response.getRates() != null ? response.getRates().size() : 0));
             return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(RateCacheHeaders.HISTORY)
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in getHistoricalRates: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getHistoricalRates", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
     @GetMapping("/predict")
     @CrossOrigin(origins = "*")
-    public ResponseEntity<PredictionResponse> getPrediction() {
+    public ResponseEntity<PredictionResponse> getPrediction(WebRequest webRequest) {
         try {
-            System.out.println("GET /api/rate/predict - Request received");
+            log.debug("GET /api/rate/predict - Request received");
             PredictionResponse response = goldRateService.getPrediction();
-            System.out.println("GET /api/rate/predict - Response: " + response);
+            String etag = RateCacheHeaders.etag("predict", response.getDate(), response.getPredicted22k(),
+                    response.getPredicted24k(), response.getConfidence(), response.getTrend());
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(RateCacheHeaders.LATEST)
+                        .header("Access-Control-Allow-Origin", "*")
+                        .build();
+            }
+            log.debug("GET /api/rate/predict - Response: {}", response);
             return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(RateCacheHeaders.LATEST)
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "*")
                     .body(response);
         } catch (Exception e) {
-            System.err.println("Error in getPrediction: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getPrediction", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<SseEmitter> streamRates() {
+        try {
+            SseEmitter emitter = rateStreamService.subscribe();
+            log.debug("GET /api/rate/stream - Subscribed ({} open, {} frames dropped, {} stalled subscribers evicted so far)",
+                    rateStreamService.getSubscriberCount(), rateStreamService.getDroppedFrames(), rateStreamService.getEvictedSubscribers());
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .header("Cache-Control", "no-cache")
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (Exception e) {
+            log.error("Error in streamRates: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     // Health check endpoint
     @GetMapping("/health")
     @CrossOrigin(origins = "*")
     public ResponseEntity<String> healthCheck() {
-        System.out.println("GET /api/rate/health - Health check requested");
+        log.debug("GET /api/rate/health - Health check requested");
         return ResponseEntity.ok()
                 .header("Access-Control-Allow-Origin", "*")
                 .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
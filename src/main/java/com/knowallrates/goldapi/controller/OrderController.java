@@ -13,6 +13,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
@@ -23,6 +25,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class OrderController {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
     @Autowired
     private OrderService orderService;
 
@@ -41,7 +45,7 @@ public class OrderController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(order);
         } catch (Exception e) {
-            System.err.println("Error in createOrder: " + e.getMessage());
+            log.error("Error in createOrder: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -63,7 +67,7 @@ public class OrderController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(orders);
         } catch (Exception e) {
-            System.err.println("Error in getUserOrders: " + e.getMessage());
+            log.error("Error in getUserOrders: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -87,7 +91,7 @@ public class OrderController {
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
-            System.err.println("Error in getOrder: " + e.getMessage());
+            log.error("Error in getOrder: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -129,7 +133,7 @@ public class OrderController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(order);
         } catch (Exception e) {
-            System.err.println("Error in updateOrderStatus: " + e.getMessage());
+            log.error("Error in updateOrderStatus: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -146,7 +150,7 @@ public class OrderController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(order);
         } catch (Exception e) {
-            System.err.println("Error in updatePaymentStatus: " + e.getMessage());
+            log.error("Error in updatePaymentStatus: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -1,8 +1,12 @@
 package com.knowallrates.goldapi.controller;
 
+import com.knowallrates.goldapi.dto.CatalogPageResponse;
 import com.knowallrates.goldapi.dto.ProductRequest;
 import com.knowallrates.goldapi.dto.ProductResponse;
+import com.knowallrates.goldapi.dto.ProductSearchResult;
 import com.knowallrates.goldapi.model.Product;
+import com.knowallrates.goldapi.service.CatalogCursor;
+import com.knowallrates.goldapi.service.ProductSearchIndex;
 import com.knowallrates.goldapi.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,9 +14,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,35 +31,25 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class ProductController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+    private static final int MAX_CATALOG_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
     @GetMapping("/products")
     @CrossOrigin(origins = "*")
     public ResponseEntity<List<ProductResponse>> getAllProductsForAdmin() {
         try {
             List<Product> products = productService.getAllActiveProducts();
 
-            List<ProductResponse> response = products.stream().map(product -> {
-                ProductResponse dto = new ProductResponse();
-                dto.setId(product.getId());
-                dto.setName(product.getName());
-                dto.setDescription(product.getDescription());
-                dto.setAssetName(product.getAsset() != null ? product.getAsset().getDisplayName() : null);
-                dto.setBasePrice(product.getBasePrice());
-                dto.setDiscountPercentage(product.getDiscountPercentage());
-                dto.setPrice(product.getFinalPrice());
-                dto.setStockQuantity(product.getStockQuantity());
-                dto.setWeight(product.getWeight());
-                dto.setPurity(product.getPurity());
-                dto.setImageUrl(product.getImageUrl());
-                dto.setAdditionalImages(product.getAdditionalImages());
-                dto.setActive(product.getIsActive());
-                dto.setCategory(product.getCategory());
-                dto.setCreatedAt(product.getCreatedAt());
-                dto.setUpdatedAt(product.getUpdatedAt());
-                return dto;
-            }).collect(Collectors.toList());
+            List<ProductResponse> response = products.stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList());
 
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
@@ -60,7 +58,64 @@ public class ProductController {
                     .body(response);
 
         } catch (Exception e) {
-            System.err.println("Error in getAllProductsForAdmin: " + e.getMessage());
+            log.error("Error in getAllProductsForAdmin: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Storefront listing: keyset-paginated active products, newest first, optionally filtered by
+    // category and/or asset name. Pass nextCursor from the previous page as cursor.
+    @GetMapping("/catalog")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<CatalogPageResponse> getCatalog(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String asset,
+            @RequestParam(defaultValue = "24") int size,
+            @RequestParam(required = false) String cursor) {
+        ScrollPosition position;
+        try {
+            position = CatalogCursor.decode(cursor);
+        } catch (RuntimeException e) {
+            // The only client error here: a cursor that is not one we handed out
+            log.warn("Rejected catalog cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_CATALOG_PAGE_SIZE));
+            Window<Product> window = productService.getCatalogPage(category, asset, pageSize, position);
+
+            List<ProductResponse> items = window.getContent().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList());
+            String nextCursor = window.hasNext() ? CatalogCursor.encode(window.getContent().get(window.size() - 1)) : null;
+
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(new CatalogPageResponse(items, nextCursor));
+        } catch (Exception e) {
+            log.error("Error in getCatalog: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Ranked full-text search over active products, answered from ProductSearchIndex
+    @GetMapping("/search")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<List<ProductSearchResult>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<ProductSearchResult> results = productSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "*")
+                    .body(results);
+        } catch (Exception e) {
+            log.error("Error in searchProducts: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -127,7 +182,7 @@ public class ProductController {
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
-            System.err.println("Error in getProduct: " + e.getMessage());
+            log.error("Error in getProduct: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -157,7 +212,7 @@ public class ProductController {
                     .header("Access-Control-Allow-Origin", "*")
                     .body(product);
         } catch (Exception e) {
-            System.err.println("Error in updateProduct: " + e.getMessage());
+            log.error("Error in updateProduct: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -172,11 +227,32 @@ public class ProductController {
                     .header("Access-Control-Allow-Origin", "*")
                     .build();
         } catch (Exception e) {
-            System.err.println("Error in deleteProduct: " + e.getMessage());
+            log.error("Error in deleteProduct: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    private ProductResponse toResponse(Product product) {
+        ProductResponse dto = new ProductResponse();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setAssetName(product.getAsset() != null ? product.getAsset().getDisplayName() : null);
+        dto.setBasePrice(product.getBasePrice());
+        dto.setDiscountPercentage(product.getDiscountPercentage());
+        dto.setPrice(product.getFinalPrice());
+        dto.setStockQuantity(product.getStockQuantity());
+        dto.setWeight(product.getWeight());
+        dto.setPurity(product.getPurity());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setAdditionalImages(product.getAdditionalImages());
+        dto.setActive(product.getIsActive());
+        dto.setCategory(product.getCategory());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        return dto;
+    }
+
     // Handle preflight requests
     @RequestMapping(method = RequestMethod.OPTIONS, value = "/**")
     @CrossOrigin(origins = "*")
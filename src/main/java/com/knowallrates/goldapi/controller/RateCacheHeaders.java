@@ -0,0 +1,32 @@
+package com.knowallrates.goldapi.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+// Conditional-GET helpers shared by the rate controllers. ETags are built from data versions
+// (dates and updated_at values), never from the time of the request, so unchanged data revalidates to 304.
+final class RateCacheHeaders {
+
+    // Latest rates also arrive over /api/rate/stream, so a short shared-cache lifetime is enough
+    static final CacheControl LATEST = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+    static final CacheControl HISTORY = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    // For /api/rates/**, which needs a token: only the client's own cache may keep these, never a CDN or
+    // shared proxy that would hand an authenticated response to anonymous clients
+    static final CacheControl PRIVATE_LATEST = CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate();
+    static final CacheControl PRIVATE_HISTORY = CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate();
+
+    private RateCacheHeaders() {}
+
+    static String etag(Object... parts) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(parts[i]);
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -1,8 +1,6 @@
 package com.knowallrates.goldapi.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.knowallrates.goldapi.model.Cart;
-import com.knowallrates.goldapi.model.CartItem;
 
 import java.util.List;
 
@@ -33,17 +31,18 @@ public class CartResponse {
         // Constructors
         public CartItemResponse() {}
 
-        public CartItemResponse(CartItem item) {
-            this.id = item.getId();
-            this.productId = item.getProduct().getId();
-            this.name = item.getProduct().getName();
-            this.productImage = item.getProduct().getImageUrl();
-            this.category = item.getProduct().getCategory();
-            this.purity = item.getProduct().getPurity();
-            this.weightInGrams = item.getProduct().getWeight();
-            this.quantity = item.getQuantity();
-            this.unitPrice = item.getUnitPrice();
-            this.totalPrice = item.getTotalPrice();
+        public CartItemResponse(Long id, Long productId, String name, String productImage, String category,
+                                String purity, Double weightInGrams, Integer quantity, Double unitPrice, Double totalPrice) {
+            this.id = id;
+            this.productId = productId;
+            this.name = name;
+            this.productImage = productImage;
+            this.category = category;
+            this.purity = purity;
+            this.weightInGrams = weightInGrams;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.totalPrice = totalPrice;
         }
 
         // Getters and Setters
@@ -81,13 +80,11 @@ public class CartResponse {
     // Constructors
     public CartResponse() {}
 
-    public CartResponse(Cart cart) {
-        this.id = cart.getId();
-        this.items = cart.getItems().stream()
-                .map(CartItemResponse::new)
-                .toList();
-        this.totalAmount = cart.getTotalAmount();
-        this.totalItems = cart.getItems().size();
+    public CartResponse(Long id, List<CartItemResponse> items, Double totalAmount) {
+        this.id = id;
+        this.items = items;
+        this.totalAmount = totalAmount;
+        this.totalItems = items.size();
     }
 
     // Getters and Setters
@@ -0,0 +1,29 @@
+package com.knowallrates.goldapi.dto;
+
+import java.util.List;
+
+// One page of GET /api/shop/catalog; pass nextCursor back as ?cursor= for the following page
+public class CatalogPageResponse {
+    private List<ProductResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public CatalogPageResponse() {}
+
+    public CatalogPageResponse(List<ProductResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<ProductResponse> getItems() { return items; }
+    public void setItems(List<ProductResponse> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
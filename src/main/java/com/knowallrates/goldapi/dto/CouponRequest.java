@@ -0,0 +1,69 @@
+package com.knowallrates.goldapi.dto;
+
+import com.knowallrates.goldapi.model.Coupon;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.LocalDateTime;
+
+public class CouponRequest {
+    @NotBlank(message = "Coupon code is required")
+    private String code;
+
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    @NotNull(message = "Discount type is required")
+    private Coupon.DiscountType discountType;
+
+    @NotNull(message = "Discount value is required")
+    @Positive(message = "Discount value must be positive")
+    private Double discountValue;
+
+    @PositiveOrZero(message = "Minimum order amount must be non-negative")
+    private Double minimumOrderAmount = 0.0;
+
+    private Double maximumDiscountAmount;
+
+    @Positive(message = "Usage limit must be positive")
+    private Integer usageLimit;
+
+    private Boolean isActive = true;
+
+    private LocalDateTime validFrom;
+
+    private LocalDateTime validUntil;
+
+    // Getters and Setters
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Coupon.DiscountType getDiscountType() { return discountType; }
+    public void setDiscountType(Coupon.DiscountType discountType) { this.discountType = discountType; }
+
+    public Double getDiscountValue() { return discountValue; }
+    public void setDiscountValue(Double discountValue) { this.discountValue = discountValue; }
+
+    public Double getMinimumOrderAmount() { return minimumOrderAmount; }
+    public void setMinimumOrderAmount(Double minimumOrderAmount) { this.minimumOrderAmount = minimumOrderAmount; }
+
+    public Double getMaximumDiscountAmount() { return maximumDiscountAmount; }
+    public void setMaximumDiscountAmount(Double maximumDiscountAmount) { this.maximumDiscountAmount = maximumDiscountAmount; }
+
+    public Integer getUsageLimit() { return usageLimit; }
+    public void setUsageLimit(Integer usageLimit) { this.usageLimit = usageLimit; }
+
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+
+    public LocalDateTime getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDateTime validFrom) { this.validFrom = validFrom; }
+
+    public LocalDateTime getValidUntil() { return validUntil; }
+    public void setValidUntil(LocalDateTime validUntil) { this.validUntil = validUntil; }
+}
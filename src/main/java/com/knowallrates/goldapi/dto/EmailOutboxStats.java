@@ -0,0 +1,45 @@
+package com.knowallrates.goldapi.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Outbox health for the admin dashboard; counters are since application start
+public class EmailOutboxStats {
+    private Map<String, Long> rowsByStatus = new LinkedHashMap<>();
+    private int queueDepth;
+    private int activeWorkers;
+    private long sent;
+    private long retried;
+    private long failed;
+    private long rejected;
+    private long averageSendMs;
+    private long maxSendMs;
+
+    // Getters and Setters
+    public Map<String, Long> getRowsByStatus() { return rowsByStatus; }
+    public void setRowsByStatus(Map<String, Long> rowsByStatus) { this.rowsByStatus = rowsByStatus; }
+
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+    public int getActiveWorkers() { return activeWorkers; }
+    public void setActiveWorkers(int activeWorkers) { this.activeWorkers = activeWorkers; }
+
+    public long getSent() { return sent; }
+    public void setSent(long sent) { this.sent = sent; }
+
+    public long getRetried() { return retried; }
+    public void setRetried(long retried) { this.retried = retried; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getAverageSendMs() { return averageSendMs; }
+    public void setAverageSendMs(long averageSendMs) { this.averageSendMs = averageSendMs; }
+
+    public long getMaxSendMs() { return maxSendMs; }
+    public void setMaxSendMs(long maxSendMs) { this.maxSendMs = maxSendMs; }
+}
@@ -0,0 +1,51 @@
+package com.knowallrates.goldapi.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// SMTP dispatcher health for the admin dashboard; counters are since application start
+public class MailDispatcherStats {
+    private int queueDepth;
+    private boolean connected;
+    private long sent;
+    private long failed;
+    private long batches;
+    private double averageBatchSize;
+    private long connectionsOpened;
+    private long reconnects;
+    // Time inside Transport.sendMessage
+    private Map<String, Long> sendLatency = new LinkedHashMap<>();
+    // Submit to done, including time waiting in the queue
+    private Map<String, Long> totalLatency = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+    public boolean isConnected() { return connected; }
+    public void setConnected(boolean connected) { this.connected = connected; }
+
+    public long getSent() { return sent; }
+    public void setSent(long sent) { this.sent = sent; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getBatches() { return batches; }
+    public void setBatches(long batches) { this.batches = batches; }
+
+    public double getAverageBatchSize() { return averageBatchSize; }
+    public void setAverageBatchSize(double averageBatchSize) { this.averageBatchSize = averageBatchSize; }
+
+    public long getConnectionsOpened() { return connectionsOpened; }
+    public void setConnectionsOpened(long connectionsOpened) { this.connectionsOpened = connectionsOpened; }
+
+    public long getReconnects() { return reconnects; }
+    public void setReconnects(long reconnects) { this.reconnects = reconnects; }
+
+    public Map<String, Long> getSendLatency() { return sendLatency; }
+    public void setSendLatency(Map<String, Long> sendLatency) { this.sendLatency = sendLatency; }
+
+    public Map<String, Long> getTotalLatency() { return totalLatency; }
+    public void setTotalLatency(Map<String, Long> totalLatency) { this.totalLatency = totalLatency; }
+}
@@ -26,6 +26,18 @@ public class OrderItemResponse {
         this.totalPrice = orderItem.getTotalPrice();
     }
 
+    public OrderItemResponse(Long id, Long productId, String productName, String productDescription,
+                             String productImageUrl, Integer quantity, Double unitPrice, Double totalPrice) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.productDescription = productDescription;
+        this.productImageUrl = productImageUrl;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = totalPrice;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -50,4 +62,20 @@ public class OrderItemResponse {
 
     public Double getTotalPrice() { return totalPrice; }
     public void setTotalPrice(Double totalPrice) { this.totalPrice = totalPrice; }
+
+    // One row of OrderRepository.findItemSummaries: the item plus the primary key of its order, for grouping
+    public static class Summary {
+        private final Long orderPk;
+        private final OrderItemResponse item;
+
+        public Summary(Long orderPk, Long id, Long productId, String productName, String productDescription,
+                       String productImageUrl, Integer quantity, Double unitPrice, Double totalPrice) {
+            this.orderPk = orderPk;
+            this.item = new OrderItemResponse(id, productId, productName, productDescription, productImageUrl,
+                    quantity, unitPrice, totalPrice);
+        }
+
+        public Long getOrderPk() { return orderPk; }
+        public OrderItemResponse getItem() { return item; }
+    }
 }
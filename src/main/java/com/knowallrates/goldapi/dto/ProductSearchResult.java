@@ -0,0 +1,53 @@
+package com.knowallrates.goldapi.dto;
+
+// One hit of GET /api/shop/search, best first; score is only meaningful relative to other hits
+public class ProductSearchResult {
+    private Long id;
+    private String name;
+    private String category;
+    private String assetName;
+    private String purity;
+    private Double price;
+    private String imageUrl;
+    private double score;
+
+    // Constructors
+    public ProductSearchResult() {}
+
+    public ProductSearchResult(Long id, String name, String category, String assetName, String purity,
+                               Double price, String imageUrl, double score) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.assetName = assetName;
+        this.purity = purity;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getAssetName() { return assetName; }
+    public void setAssetName(String assetName) { this.assetName = assetName; }
+
+    public String getPurity() { return purity; }
+    public void setPurity(String purity) { this.purity = purity; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,63 @@
+package com.knowallrates.goldapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// Payload of a "rates" event on /api/rate/stream: the newest changed point per asset
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RateDelta {
+    private List<Entry> rates;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+        private String assetName;
+        private String date;
+        private Double rate22k;
+        private Double rate24k;
+        private Double ratePerUnit;
+        private String unit;
+
+        // Constructors
+        public Entry() {}
+
+        public Entry(String assetName, String date, Double rate22k, Double rate24k, Double ratePerUnit, String unit) {
+            this.assetName = assetName;
+            this.date = date;
+            this.rate22k = rate22k;
+            this.rate24k = rate24k;
+            this.ratePerUnit = ratePerUnit;
+            this.unit = unit;
+        }
+
+        // Getters and Setters
+        public String getAssetName() { return assetName; }
+        public void setAssetName(String assetName) { this.assetName = assetName; }
+
+        public String getDate() { return date; }
+        public void setDate(String date) { this.date = date; }
+
+        public Double getRate22k() { return rate22k; }
+        public void setRate22k(Double rate22k) { this.rate22k = rate22k; }
+
+        public Double getRate24k() { return rate24k; }
+        public void setRate24k(Double rate24k) { this.rate24k = rate24k; }
+
+        public Double getRatePerUnit() { return ratePerUnit; }
+        public void setRatePerUnit(Double ratePerUnit) { this.ratePerUnit = ratePerUnit; }
+
+        public String getUnit() { return unit; }
+        public void setUnit(String unit) { this.unit = unit; }
+    }
+
+    // Constructors
+    public RateDelta() {}
+
+    public RateDelta(List<Entry> rates) {
+        this.rates = rates;
+    }
+
+    // Getters and Setters
+    public List<Entry> getRates() { return rates; }
+    public void setRates(List<Entry> rates) { this.rates = rates; }
+}
@@ -0,0 +1,36 @@
+package com.knowallrates.goldapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// One record of a bulk rate import (a CSV line or an NDJSON object)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RateImportRow {
+    private String assetName;
+    private String date;
+    private Double rate22k;
+    private Double rate24k;
+    private Double ratePerUnit;
+    private String unit;
+
+    // Constructors
+    public RateImportRow() {}
+
+    // Getters and Setters
+    public String getAssetName() { return assetName; }
+    public void setAssetName(String assetName) { this.assetName = assetName; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public Double getRate22k() { return rate22k; }
+    public void setRate22k(Double rate22k) { this.rate22k = rate22k; }
+
+    public Double getRate24k() { return rate24k; }
+    public void setRate24k(Double rate24k) { this.rate24k = rate24k; }
+
+    public Double getRatePerUnit() { return ratePerUnit; }
+    public void setRatePerUnit(Double ratePerUnit) { this.ratePerUnit = ratePerUnit; }
+
+    public String getUnit() { return unit; }
+    public void setUnit(String unit) { this.unit = unit; }
+}
@@ -1,26 +1,26 @@
 package com.knowallrates.goldapi.dto;
 
 
-public class TodayRateResponse {
-    private String date;
-    private Double gold22k;
-    private Double gold24k;
-    private Double change22k;
-    private Double change24k;
-    private Double changePercent22k;
-    private Double changePercent24k;
-    private String timestamp;
-    private YesterdayRate yesterday;
-
-    public static class YesterdayRate {
-        private String date;
-        private Double gold22k;
-        private Double gold24k;
-        private String timestamp;
+// Immutable: GoldRateService caches one instance per day and hands it to every /today caller and to
+// the rate stream
+public final class TodayRateResponse {
+    private final String date;
+    private final Double gold22k;
+    private final Double gold24k;
+    private final Double change22k;
+    private final Double change24k;
+    private final Double changePercent22k;
+    private final Double changePercent24k;
+    private final String timestamp;
+    private final YesterdayRate yesterday;
+
+    public static final class YesterdayRate {
+        private final String date;
+        private final Double gold22k;
+        private final Double gold24k;
+        private final String timestamp;
 
         // Constructors
-        public YesterdayRate() {}
-
         public YesterdayRate(String date, Double gold22k, Double gold24k, String timestamp) {
             this.date = date;
             this.gold22k = gold22k;
@@ -28,48 +28,47 @@ public class TodayRateResponse {
             this.timestamp = timestamp;
         }
 
-        // Getters and Setters
+        // Getters
         public String getDate() { return date; }
-        public void setDate(String date) { this.date = date; }
 
         public Double getGold22k() { return gold22k; }
-        public void setGold22k(Double gold22k) { this.gold22k = gold22k; }
 
         public Double getGold24k() { return gold24k; }
-        public void setGold24k(Double gold24k) { this.gold24k = gold24k; }
 
         public String getTimestamp() { return timestamp; }
-        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
     }
 
     // Constructors
-    public TodayRateResponse() {}
+    public TodayRateResponse(String date, Double gold22k, Double gold24k, Double change22k, Double change24k,
+                             Double changePercent22k, Double changePercent24k, String timestamp,
+                             YesterdayRate yesterday) {
+        this.date = date;
+        this.gold22k = gold22k;
+        this.gold24k = gold24k;
+        this.change22k = change22k;
+        this.change24k = change24k;
+        this.changePercent22k = changePercent22k;
+        this.changePercent24k = changePercent24k;
+        this.timestamp = timestamp;
+        this.yesterday = yesterday;
+    }
 
-    // Getters and Setters
+    // Getters
     public String getDate() { return date; }
-    public void setDate(String date) { this.date = date; }
 
     public Double getGold22k() { return gold22k; }
-    public void setGold22k(Double gold22k) { this.gold22k = gold22k; }
 
     public Double getGold24k() { return gold24k; }
-    public void setGold24k(Double gold24k) { this.gold24k = gold24k; }
 
     public Double getChange22k() { return change22k; }
-    public void setChange22k(Double change22k) { this.change22k = change22k; }
 
     public Double getChange24k() { return change24k; }
-    public void setChange24k(Double change24k) { this.change24k = change24k; }
 
     public Double getChangePercent22k() { return changePercent22k; }
-    public void setChangePercent22k(Double changePercent22k) { this.changePercent22k = changePercent22k; }
 
     public Double getChangePercent24k() { return changePercent24k; }
-    public void setChangePercent24k(Double changePercent24k) { this.changePercent24k = changePercent24k; }
 
     public String getTimestamp() { return timestamp; }
-    public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
 
     public YesterdayRate getYesterday() { return yesterday; }
-    public void setYesterday(YesterdayRate yesterday) { this.yesterday = yesterday; }
-}
\ No newline at end of file
+}
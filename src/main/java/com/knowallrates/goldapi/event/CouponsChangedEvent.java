@@ -0,0 +1,12 @@
+package com.knowallrates.goldapi.event;
+
+// Published after an admin creates, edits or deactivates a coupon so CouponCache reloads
+public class CouponsChangedEvent {
+    private final Long couponId;
+
+    public CouponsChangedEvent(Long couponId) {
+        this.couponId = couponId;
+    }
+
+    public Long getCouponId() { return couponId; }
+}
@@ -0,0 +1,12 @@
+package com.knowallrates.goldapi.event;
+
+// Published when an outbox row is written; delivery starts once the surrounding transaction commits
+public class EmailQueuedEvent {
+    private final Long emailId;
+
+    public EmailQueuedEvent(Long emailId) {
+        this.emailId = emailId;
+    }
+
+    public Long getEmailId() { return emailId; }
+}
@@ -0,0 +1,13 @@
+package com.knowallrates.goldapi.event;
+
+// Published after a product is created, edited, activated/deactivated or deleted so ProductSearchIndex
+// re-indexes it; a null productId means products changed in bulk and the index is rebuilt
+public class ProductsChangedEvent {
+    private final Long productId;
+
+    public ProductsChangedEvent(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getProductId() { return productId; }
+}
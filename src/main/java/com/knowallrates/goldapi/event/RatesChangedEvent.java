@@ -0,0 +1,24 @@
+package com.knowallrates.goldapi.event;
+
+import com.knowallrates.goldapi.model.AssetRate;
+import com.knowallrates.goldapi.model.GoldRate;
+
+import java.util.List;
+
+// Published after rates are written so in-memory views can refresh without polling the DB
+public class RatesChangedEvent {
+    private final List<GoldRate> goldRates;
+    private final List<AssetRate> assetRates;
+
+    public RatesChangedEvent(List<GoldRate> goldRates, List<AssetRate> assetRates) {
+        this.goldRates = List.copyOf(goldRates);
+        this.assetRates = List.copyOf(assetRates);
+    }
+
+    public static RatesChangedEvent of(GoldRate goldRate) {
+        return new RatesChangedEvent(List.of(goldRate), List.of());
+    }
+
+    public List<GoldRate> getGoldRates() { return goldRates; }
+    public List<AssetRate> getAssetRates() { return assetRates; }
+}
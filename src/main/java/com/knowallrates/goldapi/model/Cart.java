@@ -19,7 +19,9 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CartItem> items = new ArrayList<>();
 
-    @Column(name = "total_amount")
+    // Kept by CartRepository.addToTotal deltas and reconcileTotals, never by entity updates, so a
+    // cart loaded before a concurrent change cannot write back a stale total
+    @Column(name = "total_amount", updatable = false)
     private Double totalAmount = 0.0;
 
     @Column(name = "created_at")
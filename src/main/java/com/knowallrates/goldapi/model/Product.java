@@ -2,12 +2,19 @@ package com.knowallrates.goldapi.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+// The catalog pages active products newest first, optionally by category or asset; each index leads
+// with the filter and ends with the (created_at, id) sort key so every page is an index range scan
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_active_created", columnList = "is_active, created_at, id"),
+    @Index(name = "idx_products_active_category", columnList = "is_active, category, created_at, id"),
+    @Index(name = "idx_products_active_asset", columnList = "is_active, asset_id, created_at, id")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -46,6 +53,7 @@ public class Product {
     private String imageUrl;
 
     @ElementCollection(fetch = FetchType.EAGER) // Eagerly fetch additional images
+    @BatchSize(size = 100) // One query for a whole catalog page rather than one per product
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
     private List<String> additionalImages; // Stores paths to additional images
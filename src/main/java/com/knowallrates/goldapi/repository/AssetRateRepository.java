@@ -25,4 +25,22 @@ public interface AssetRateRepository extends JpaRepository<AssetRate, Long> {
     List<AssetRate> findByAssetNameAndDateGreaterThanEqual(@Param("assetName") String assetName, @Param("startDate") LocalDate startDate);
     
     Optional<AssetRate> findTopByAssetOrderByDateDesc(Asset asset);
+
+    // One round trip for every active asset and its rates in [startDate, endDate], newest first per asset;
+    // rows are [Asset, AssetRate or null]
+    @Query("SELECT a, ar FROM Asset a LEFT JOIN AssetRate ar ON ar.asset = a " +
+           "AND ar.date >= :startDate AND ar.date <= :endDate " +
+           "WHERE a.isActive = true ORDER BY a.id, ar.date DESC")
+    List<Object[]> findActiveAssetsWithRatesBetween(@Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    // Existing (assetId, date) pairs from a date onwards, used by the backfill job to find gaps
+    @Query("SELECT ar.asset.id, ar.date FROM AssetRate ar WHERE ar.date >= :startDate")
+    List<Object[]> findAssetIdsAndDatesFrom(@Param("startDate") LocalDate startDate);
+
+    // Scalar projection for the in-memory series store;
+    // rows are [assetName, date, rate22k, rate24k, ratePerUnit, updatedAt]
+    @Query("SELECT a.name, ar.date, ar.rate22k, ar.rate24k, ar.ratePerUnit, ar.updatedAt FROM AssetRate ar JOIN ar.asset a " +
+           "ORDER BY a.name, ar.date")
+    List<Object[]> findAllSeriesPoints();
 }
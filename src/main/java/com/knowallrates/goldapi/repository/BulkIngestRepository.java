@@ -0,0 +1,161 @@
+package com.knowallrates.goldapi.repository;
+
+import com.knowallrates.goldapi.model.AssetRate;
+import com.knowallrates.goldapi.model.GoldRate;
+import com.knowallrates.goldapi.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// JDBC batch writes for seeding, backfill and imports. IDENTITY ids stop Hibernate from batching save(),
+// so large inserts go straight through JdbcTemplate instead; ids are assigned by the database.
+// Joins the surrounding JPA transaction when there is one.
+@Repository
+public class BulkIngestRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_GOLD_RATE =
+            "INSERT INTO gold_rates (date, gold_22k, gold_24k, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ASSET_RATE =
+            "INSERT INTO asset_rates (asset_id, date, rate_22k, rate_24k, rate_per_unit, unit, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, description, asset_id, base_price, discount_percentage, final_price, " +
+            "stock_quantity, weight_in_grams, purity, image_url, is_active, is_featured, category, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_GOLD_RATE =
+            "UPDATE gold_rates SET gold_22k = ?, gold_24k = ?, updated_at = ? WHERE date = ?";
+
+    private static final String UPDATE_ASSET_RATE =
+            "UPDATE asset_rates SET rate_22k = ?, rate_24k = ?, rate_per_unit = ?, unit = ?, updated_at = ? " +
+            "WHERE asset_id = ? AND date = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insertGoldRates(Collection<GoldRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_GOLD_RATE, rates, BATCH_SIZE, (ps, rate) -> {
+            ps.setObject(1, rate.getDate());
+            setDouble(ps, 2, rate.getGold22k());
+            setDouble(ps, 3, rate.getGold24k());
+            ps.setObject(4, rate.getCreatedAt() != null ? rate.getCreatedAt() : now);
+            ps.setObject(5, rate.getUpdatedAt() != null ? rate.getUpdatedAt() : now);
+        });
+    }
+
+    public void insertAssetRates(Collection<AssetRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_ASSET_RATE, rates, BATCH_SIZE, (ps, rate) -> {
+            ps.setLong(1, rate.getAsset().getId());
+            ps.setObject(2, rate.getDate());
+            setDouble(ps, 3, rate.getRate22k());
+            setDouble(ps, 4, rate.getRate24k());
+            setDouble(ps, 5, rate.getRatePerUnit());
+            ps.setString(6, rate.getUnit());
+            ps.setObject(7, rate.getCreatedAt() != null ? rate.getCreatedAt() : now);
+            ps.setObject(8, rate.getUpdatedAt() != null ? rate.getUpdatedAt() : now);
+        });
+    }
+
+    // Update-then-insert: one UPDATE batch, then one INSERT batch for rows that matched nothing.
+    // Callers must not pass two rows for the same date.
+    public void upsertGoldRates(List<GoldRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_GOLD_RATE, rates, BATCH_SIZE, (ps, rate) -> {
+            setDouble(ps, 1, rate.getGold22k());
+            setDouble(ps, 2, rate.getGold24k());
+            ps.setObject(3, now);
+            ps.setObject(4, rate.getDate());
+        });
+        insertGoldRates(unmatched(rates, counts));
+    }
+
+    // Same as upsertGoldRates, keyed on (asset_id, date)
+    public void upsertAssetRates(List<AssetRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_ASSET_RATE, rates, BATCH_SIZE, (ps, rate) -> {
+            setDouble(ps, 1, rate.getRate22k());
+            setDouble(ps, 2, rate.getRate24k());
+            setDouble(ps, 3, rate.getRatePerUnit());
+            ps.setString(4, rate.getUnit());
+            ps.setObject(5, now);
+            ps.setLong(6, rate.getAsset().getId());
+            ps.setObject(7, rate.getDate());
+        });
+        insertAssetRates(unmatched(rates, counts));
+    }
+
+    // Writes the product row only; additionalImages are not inserted on this path
+    public void insertProducts(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, BATCH_SIZE, (ps, product) -> {
+            double discount = product.getDiscountPercentage() != null ? product.getDiscountPercentage() : 0.0;
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setLong(3, product.getAsset().getId());
+            setDouble(ps, 4, product.getBasePrice());
+            ps.setDouble(5, discount);
+            // Same rule as Product#prePersist, which does not run for JDBC inserts
+            ps.setDouble(6, product.getBasePrice() - (product.getBasePrice() * discount / 100));
+            ps.setInt(7, product.getStockQuantity() != null ? product.getStockQuantity() : 0);
+            setDouble(ps, 8, product.getWeight());
+            ps.setString(9, product.getPurity());
+            ps.setString(10, product.getImageUrl());
+            ps.setBoolean(11, product.getIsActive() == null || product.getIsActive());
+            ps.setBoolean(12, product.getIsFeatured() != null && product.getIsFeatured());
+            ps.setString(13, product.getCategory());
+            ps.setObject(14, now);
+            ps.setObject(15, now);
+        });
+    }
+
+    private static <T> List<T> unmatched(List<T> rows, int[][] counts) {
+        List<T> unmatched = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    unmatched.add(rows.get(i));
+                }
+                i++;
+            }
+        }
+        return unmatched;
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+}
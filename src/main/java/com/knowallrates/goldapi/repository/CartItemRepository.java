@@ -1,9 +1,13 @@
 package com.knowallrates.goldapi.repository;
 
+import com.knowallrates.goldapi.dto.CartResponse;
 import com.knowallrates.goldapi.model.Cart;
 import com.knowallrates.goldapi.model.CartItem;
 import com.knowallrates.goldapi.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +18,21 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByCart(Cart cart);
     Optional<CartItem> findByCartAndProduct(Cart cart, Product product);
     void deleteByCart(Cart cart);
+
+    // Ownership is checked in the query, so the cart and its user are not loaded just to compare emails
+    @Query("SELECT i FROM CartItem i WHERE i.id = :id AND i.cart.user.email = :email")
+    Optional<CartItem> findOwnedItem(@Param("id") Long id, @Param("email") String email);
+
+    // Everything a cart view shows, in one statement and without managed entities
+    @Query("SELECT new com.knowallrates.goldapi.dto.CartResponse$CartItemResponse(" +
+           "i.id, p.id, p.name, p.imageUrl, p.category, p.purity, p.weight, i.quantity, i.unitPrice, i.totalPrice) " +
+           "FROM CartItem i JOIN i.product p WHERE i.cart.id = :cartId ORDER BY i.id")
+    List<CartResponse.CartItemResponse> findResponsesByCartId(@Param("cartId") Long cartId);
+
+    @Query("SELECT i FROM CartItem i JOIN FETCH i.product WHERE i.cart = :cart ORDER BY i.id")
+    List<CartItem> findWithProductByCart(@Param("cart") Cart cart);
+
+    @Modifying
+    @Query("UPDATE CartItem i SET i.quantity = :quantity, i.totalPrice = :totalPrice WHERE i.id = :id")
+    int updateQuantity(@Param("id") Long id, @Param("quantity") int quantity, @Param("totalPrice") double totalPrice);
 }
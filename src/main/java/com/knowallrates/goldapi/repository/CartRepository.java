@@ -3,11 +3,37 @@ package com.knowallrates.goldapi.repository;
 import com.knowallrates.goldapi.model.Cart;
 import com.knowallrates.goldapi.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser(User user);
+
+    // Applies one item change to the running total without reading the cart's items
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = COALESCE(c.totalAmount, 0) + :delta, c.updatedAt = :now WHERE c.id = :id")
+    int addToTotal(@Param("id") Long id, @Param("delta") double delta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = 0, c.updatedAt = :now WHERE c.id = :id")
+    int resetTotal(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = :total, c.updatedAt = :now WHERE c.id = :id")
+    int setTotal(@Param("id") Long id, @Param("total") double total, @Param("now") LocalDateTime now);
+
+    // Rewrites only the totals that drifted from the sum of their items by more than :tolerance. Running
+    // totals are doubles built from deltas (0.1 + 0.2 - 0.1), so they differ from SUM in the last bits.
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = " +
+           "COALESCE((SELECT SUM(i.totalPrice) FROM CartItem i WHERE i.cart = c), 0) " +
+           "WHERE c.totalAmount IS NULL OR ABS(c.totalAmount - " +
+           "COALESCE((SELECT SUM(i.totalPrice) FROM CartItem i WHERE i.cart = c), 0)) > :tolerance")
+    int reconcileTotals(@Param("tolerance") double tolerance);
 }
@@ -2,6 +2,9 @@ package com.knowallrates.goldapi.repository;
 
 import com.knowallrates.goldapi.model.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -11,6 +14,20 @@ import java.util.Optional;
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
     Optional<Coupon> findByCodeAndIsActiveTrue(String code);
+    List<Coupon> findByIsActiveTrue();
+    Optional<Coupon> findFirstByCodeIgnoreCase(String code);
     List<Coupon> findByIsActiveTrueAndValidFromLessThanEqualAndValidUntilGreaterThanEqual(
         LocalDateTime now1, LocalDateTime now2);
+
+    // Claims count redemptions in one statement, or none if that would pass usageLimit (0 rows)
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = COALESCE(c.usedCount, 0) + :count " +
+           "WHERE c.id = :id AND c.isActive = true " +
+           "AND (c.usageLimit IS NULL OR COALESCE(c.usedCount, 0) + :count <= c.usageLimit)")
+    int incrementUsedCount(@Param("id") Long id, @Param("count") int count);
+
+    // Hands back redemptions that were claimed but not used
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount - :count WHERE c.id = :id AND c.usedCount >= :count")
+    int decrementUsedCount(@Param("id") Long id, @Param("count") int count);
 }
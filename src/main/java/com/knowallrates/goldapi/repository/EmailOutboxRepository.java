@@ -0,0 +1,40 @@
+package com.knowallrates.goldapi.repository;
+
+import com.knowallrates.goldapi.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Due rows: pending ones whose backoff has elapsed and sending ones whose worker lease ran out
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status IN ('PENDING', 'SENDING') AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Atomically takes a due row for one worker; returns 0 if another worker (or instance) already has it
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENDING', e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.id = :id AND e.status IN ('PENDING', 'SENDING') AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Records the outcome of a send, only while the worker still holds its lease: a re-claim after the lease
+    // ran out bumps attempts, so a late worker finds nothing to update
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.sentAt = :sentAt, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :lastError WHERE e.id = :id AND e.status = 'SENDING' AND e.attempts = :attempts")
+    int complete(@Param("id") Long id, @Param("attempts") Integer attempts, @Param("status") EmailOutbox.Status status,
+                 @Param("sentAt") LocalDateTime sentAt, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                 @Param("lastError") String lastError);
+
+    // Rows are [status, count]
+    @Query("SELECT e.status, COUNT(e) FROM EmailOutbox e GROUP BY e.status")
+    List<Object[]> countByStatus();
+}
@@ -23,4 +23,14 @@ public interface GoldRateRepository extends JpaRepository<GoldRate, Long> {
 
     @Query("SELECT gr FROM GoldRate gr ORDER BY gr.date DESC LIMIT :limit")
     List<GoldRate> findLatestRates(@Param("limit") int limit);
+
+    @Query("SELECT gr FROM GoldRate gr WHERE gr.date <= :date ORDER BY gr.date DESC LIMIT 2")
+    List<GoldRate> findLatestTwoRatesOnOrBefore(@Param("date") LocalDate date);
+
+    @Query("SELECT gr.date FROM GoldRate gr WHERE gr.date >= :startDate")
+    List<LocalDate> findDatesFrom(@Param("startDate") LocalDate startDate);
+
+    // Scalar projection for the in-memory series store; rows are [date, gold22k, gold24k, updatedAt]
+    @Query("SELECT gr.date, gr.gold22k, gr.gold24k, gr.updatedAt FROM GoldRate gr ORDER BY gr.date")
+    List<Object[]> findAllSeriesPoints();
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package com.knowallrates.goldapi.repository;
 
+import com.knowallrates.goldapi.dto.OrderItemResponse;
 import com.knowallrates.goldapi.model.Order;
 import com.knowallrates.goldapi.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +20,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserOrderByCreatedAtDesc(User user);
     Page<Order> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     Page<Order> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    // Order history reads: orders with their user in one query, then findItemSummaries for the items.
+    // The items are not fetch-joined here because that would make Hibernate paginate in memory.
+    @Query("SELECT o FROM Order o JOIN FETCH o.user WHERE o.user = :user ORDER BY o.createdAt DESC")
+    List<Order> findWithUserByUser(@Param("user") User user);
+
+    @Query(value = "SELECT o FROM Order o JOIN FETCH o.user WHERE o.user = :user ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user = :user")
+    Page<Order> findWithUserByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.user WHERE o.orderId = :orderId")
+    Optional<Order> findWithUserByOrderId(@Param("orderId") String orderId);
+
+    // Items of many orders with just the product fields OrderItemResponse shows. Selecting columns
+    // instead of Product entities also skips the eager additional-images load per product.
+    @Query("SELECT new com.knowallrates.goldapi.dto.OrderItemResponse$Summary(i.order.id, i.id, p.id, p.name, " +
+           "p.description, p.imageUrl, i.quantity, i.unitPrice, i.totalPrice) " +
+           "FROM OrderItem i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemResponse.Summary> findItemSummaries(@Param("orderIds") Collection<Long> orderIds);
 }
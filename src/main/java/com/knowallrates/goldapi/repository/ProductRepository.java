@@ -2,14 +2,21 @@ package com.knowallrates.goldapi.repository;
 
 import com.knowallrates.goldapi.model.Asset;
 import com.knowallrates.goldapi.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -18,15 +25,39 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByAssetAndIsActiveTrue(Asset asset);
     List<Product> findByCategoryAndIsActiveTrue(String category);
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
-           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.category) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Product> findBySearchTerm(@Param("search") String search, Pageable pageable);
-    
+    // For ProductSearchIndex, which replaces LIKE '%term%' scans
+    @Query("SELECT p FROM Product p JOIN FETCH p.asset WHERE p.isActive = true")
+    List<Product> findActiveWithAsset();
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.asset WHERE p.id = :id")
+    Optional<Product> findWithAssetById(@Param("id") Long id);
+
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.asset = :asset")
     Page<Product> findByAsset(@Param("asset") Asset asset, Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.category = :category")
     Page<Product> findByCategory(@Param("category") String category, Pageable pageable);
+
+    // Catalog pages, newest first. Keyset scrolling seeks past the last (createdAt, id) seen instead of
+    // skipping OFFSET rows, so a deep page costs the same as the first one.
+    @EntityGraph(attributePaths = "asset")
+    Window<Product> findByIsActiveTrueOrderByCreatedAtDescIdDesc(ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = "asset")
+    Window<Product> findByIsActiveTrueAndCategoryOrderByCreatedAtDescIdDesc(String category, ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = "asset")
+    Window<Product> findByIsActiveTrueAndAssetOrderByCreatedAtDescIdDesc(Asset asset, ScrollPosition position, Limit limit);
+
+    // Both filters: walks idx_products_active_asset and checks the category on each row, as an asset
+    // holds far fewer products than the whole catalog
+    @EntityGraph(attributePaths = "asset")
+    Window<Product> findByIsActiveTrueAndAssetAndCategoryOrderByCreatedAtDescIdDesc(Asset asset, String category, ScrollPosition position, Limit limit);
+
+    // Takes stock only if enough is left, in one statement; 0 rows means it ran out (or the product is gone).
+    // Bypasses the entity, so a Product already loaded in the session keeps its old stockQuantity.
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,53 @@
+package com.knowallrates.goldapi.security;
+
+import com.knowallrates.goldapi.model.User;
+import com.knowallrates.goldapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+// Resolves the signed-in User once per request and shares it between controllers and services.
+// Tokens carrying a uid claim resolve to a lazy reference (no query until a non-id field is read);
+// older tokens without it, or calls outside a request, fall back to a lookup by email that, like the
+// old UserService.findByEmail, only finds active users.
+@Component
+public class AuthenticatedUserResolver {
+
+    // Set by JwtAuthenticationFilter on every authenticated request
+    public static final String PRINCIPAL_ATTRIBUTE = AuthenticatedUserResolver.class.getName() + ".principal";
+    private static final String USER_ATTRIBUTE_PREFIX = AuthenticatedUserResolver.class.getName() + ".user:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public Optional<User> resolve(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return userRepository.findByEmailAndIsActive(email, true);
+        }
+
+        String userAttribute = USER_ATTRIBUTE_PREFIX + email;
+        Object cached = attributes.getAttribute(userAttribute, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof User user) {
+            return Optional.of(user);
+        }
+
+        Optional<User> user;
+        Object principal = attributes.getAttribute(PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (principal instanceof JwtPrincipal jwt && jwt.getUserId() != null && email.equals(jwt.getEmail())) {
+            user = Optional.of(userRepository.getReferenceById(jwt.getUserId()));
+        } else {
+            user = userRepository.findByEmailAndIsActive(email, true);
+        }
+
+        user.ifPresent(resolved -> attributes.setAttribute(userAttribute, resolved, RequestAttributes.SCOPE_REQUEST));
+        return user;
+    }
+}
@@ -72,6 +72,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -79,6 +81,8 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -89,18 +93,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String requestPath = request.getRequestURI();
         String method = request.getMethod();
 
-        System.out.println("JWT Filter - Processing request: " + method + " " + requestPath);
+        log.debug("JWT Filter - Processing request: {} {}", method, requestPath);
 
         // Skip JWT validation for public endpoints
-        if (isPublicEndpoint(requestPath)) {
-            System.out.println("JWT Filter - Skipping authentication for public endpoint: " + requestPath);
+        if (PublicEndpoints.isPublic(requestPath)) {
+            log.debug("JWT Filter - Skipping authentication for public endpoint: {}", requestPath);
             filterChain.doFilter(request, response);
             return;
         }
 
         // Handle OPTIONS requests
         if ("OPTIONS".equals(method)) {
-            System.out.println("JWT Filter - Handling OPTIONS request");
+            log.debug("JWT Filter - Handling OPTIONS request");
             response.setHeader("Access-Control-Allow-Origin", "*");
             response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
             response.setHeader("Access-Control-Allow-Headers", "Authorization, Content-Type, Accept");
@@ -110,27 +114,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String authHeader = request.getHeader("Authorization");
-        System.out.println("JWT Filter - Authorization header: " + (authHeader != null ? authHeader.substring(0, Math.min(30, authHeader.length())) + "..." : "null"));
 
-        String token = null;
+        JwtPrincipal principal = null;
         String email = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            System.out.println("JWT Filter - Extracted token: " + token.substring(0, Math.min(30, token.length())) + "...");
-
-            try {
-                if (jwtUtil.validateToken(token)) {
-                    email = jwtUtil.getEmailFromToken(token);
-                    System.out.println("JWT Filter - Extracted email: " + email);
-                } else {
-                    System.out.println("JWT Filter - Token validation failed");
-                }
-            } catch (Exception e) {
-                System.err.println("JWT Filter - Error processing token: " + e.getMessage());
+            // One signature check per token; repeat tokens are served from JwtUtil's cache
+            principal = jwtUtil.parseToken(authHeader.substring(7));
+            if (principal != null) {
+                email = principal.getEmail();
+                log.debug("JWT Filter - Extracted email: {}", email);
+            } else {
+                log.debug("JWT Filter - Token validation failed");
             }
         } else {
-            System.out.println("JWT Filter - No valid Authorization header found");
+            log.debug("JWT Filter - No valid Authorization header found");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("{\"error\":\"Authorization header required\"}");
             return;
@@ -138,8 +136,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                String role = jwtUtil.getRoleFromToken(token);
-                System.out.println("JWT Filter - Token valid, email: " + email + ", role: " + role);
+                String role = principal.getRole();
+                log.debug("JWT Filter - Token valid, email: {}, role: {}", email, role);
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
@@ -150,16 +148,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(AuthenticatedUserResolver.PRINCIPAL_ATTRIBUTE, principal);
 
-                System.out.println("JWT Filter - Authentication set successfully for user: " + email + " with role: ROLE_" + role);
+                log.debug("JWT Filter - Authentication set successfully for user: {} with role: ROLE_{}", email, role);
             } catch (Exception e) {
-                System.err.println("JWT Filter - Error setting authentication: " + e.getMessage());
+                log.warn("JWT Filter - Error setting authentication: {}", e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("{\"error\":\"Invalid token\"}");
                 return;
             }
         } else if (email == null) {
-            System.out.println("JWT Filter - Email extraction failed, returning 401");
+            log.debug("JWT Filter - Email extraction failed, returning 401");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("{\"error\":\"Invalid or expired token\"}");
             return;
@@ -167,17 +166,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-
-    private boolean isPublicEndpoint(String path) {
-        return  path.startsWith("/api/rate/") ||
-                path.startsWith("/api/auth/signin") ||
-                path.startsWith("/api/auth/forgot-password") ||
-                path.startsWith("/api/auth/reset-password") ||
-                path.startsWith("/api/auth/verify-reset-token") ||
-                path.startsWith("/api/auth/signup") ||
-                path.startsWith("/api/uploads/products/")  ||
-                path.equals("/health") ||
-                path.equals("/") ||
-                path.startsWith("/h2-console");
-    }
 }
@@ -0,0 +1,31 @@
+package com.knowallrates.goldapi.security;
+
+// Claims of a verified token that the filter needs; immutable so it can be shared through the token cache
+public class JwtPrincipal {
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final long expiresAtMillis;
+
+    // Constructors
+    public JwtPrincipal(Long userId, String email, String role, long expiresAtMillis) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    // Getters
+    // Null for tokens issued before the uid claim was added
+    public Long getUserId() { return userId; }
+
+    public String getEmail() { return email; }
+
+    public String getRole() { return role; }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+}
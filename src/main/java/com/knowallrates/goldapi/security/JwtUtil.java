@@ -2,170 +2,201 @@ package com.knowallrates.goldapi.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
     @Value("${app.jwt.secret:mySecretKeyForGoldRatesAPIThatIsLongEnoughForHS256Algorithm}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration:86400000}") // 24 hours
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
+    @Value("${app.jwt.cache-size:10000}")
+    private int tokenCacheSize;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // SHA-256 of a token that already passed signature verification -> its claims.
+    // Keyed by digest so raw bearer tokens are not kept in memory; entries are dropped once the token expires.
+    private final Map<String, JwtPrincipal> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
         // Ensure the key is long enough for HS256
         if (jwtSecret.length() < 32) {
             jwtSecret = "mySecretKeyForGoldRatesAPIThatIsLongEnoughForHS256Algorithm";
         }
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String email, String role) {
+        return generateToken(null, email, role);
+    }
+
+    // uid lets AuthenticatedUserResolver reference the user without looking it up by email
+    public String generateToken(Long userId, String email, String role) {
         try {
-            String token = Jwts.builder()
+            JwtBuilder builder = Jwts.builder()
                     .setSubject(email)
                     .claim("role", role)
-                    .claim("email", email)
+                    .claim("email", email);
+            if (userId != null) {
+                builder.claim("uid", userId);
+            }
+            String token = builder
                     .setIssuedAt(new Date())
                     .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                    .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                    .signWith(signingKey, SignatureAlgorithm.HS256)
                     .compact();
 
-            System.out.println("Generated JWT token for user: " + email + " with role: " + role);
-            System.out.println("Token preview: " + token.substring(0, Math.min(50, token.length())) + "...");
+            log.debug("Generated JWT token for user: {} with role: {}", email, role);
             return token;
         } catch (Exception e) {
-            System.err.println("Error generating JWT token: " + e.getMessage());
+            log.error("Error generating JWT token: {}", e.getMessage());
             throw new RuntimeException("Failed to generate JWT token", e);
         }
     }
 
-    public String getEmailFromToken(String token) {
-        try {
-            if (token == null || token.trim().isEmpty()) {
-                throw new IllegalArgumentException("Token is null or empty");
-            }
+    // Verifies the token at most once and returns its claims, or null if it is missing, invalid or expired.
+    // A token seen before is answered from the cache without touching the HMAC.
+    public JwtPrincipal parseToken(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            log.debug("Token validation failed: Token is null or empty");
+            return null;
+        }
 
-            // Remove Bearer prefix if present
-            if (token.startsWith("Bearer ")) {
-                token = token.substring(7);
+        // Remove Bearer prefix if present
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        JwtPrincipal cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
             }
+            verifiedTokens.remove(digest);
+            log.debug("Token validation failed: Token expired");
+            return null;
+        }
 
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+        JwtPrincipal principal = verify(token);
+        if (principal != null && tokenCacheSize > 0 && !principal.isExpired(now)) {
+            cache(digest, principal, now);
+        }
+        return principal;
+    }
 
-            return claims.getSubject();
-        } catch (Exception e) {
-            System.err.println("Error extracting email from token: " + e.getMessage());
-            throw new RuntimeException("Invalid token", e);
+    public String getEmailFromToken(String token) {
+        JwtPrincipal principal = parseToken(token);
+        if (principal == null) {
+            throw new RuntimeException("Invalid token");
         }
+        return principal.getEmail();
     }
 
     public String getRoleFromToken(String token) {
-        try {
-            if (token == null || token.trim().isEmpty()) {
-                throw new IllegalArgumentException("Token is null or empty");
-            }
-
-            // Remove Bearer prefix if present
-            if (token.startsWith("Bearer ")) {
-                token = token.substring(7);
-            }
-
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.get("role", String.class);
-        } catch (Exception e) {
-            System.err.println("Error extracting role from token: " + e.getMessage());
-            throw new RuntimeException("Invalid token", e);
+        JwtPrincipal principal = parseToken(token);
+        if (principal == null) {
+            throw new RuntimeException("Invalid token");
         }
+        return principal.getRole();
     }
 
     public boolean validateToken(String token) {
-        try {
-            if (token == null || token.trim().isEmpty()) {
-                System.err.println("Token validation failed: Token is null or empty");
-                return false;
-            }
+        return parseToken(token) != null;
+    }
 
-            // Remove Bearer prefix if present
-            if (token.startsWith("Bearer ")) {
-                token = token.substring(7);
-            }
+    public boolean isTokenExpired(String token) {
+        JwtPrincipal principal = parseToken(token);
+        return principal == null || principal.isExpired(System.currentTimeMillis());
+    }
 
+    private JwtPrincipal verify(String token) {
+        try {
             // Check if token has the correct format (3 parts separated by dots)
             String[] parts = token.split("\\.");
             if (parts.length != 3) {
-                System.err.println("Token validation failed: Invalid token format. Expected 3 parts, got: " + parts.length);
-                return false;
+                log.debug("Token validation failed: Invalid token format. Expected 3 parts, got: {}", parts.length);
+                return null;
             }
 
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-
-            System.out.println("Token validation successful");
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            // Tokens issued here always carry an expiration; treat one without it as already expired
+            Date expiration = claims.getExpiration();
+            return new JwtPrincipal(claims.get("uid", Long.class), claims.getSubject(), claims.get("role", String.class),
+                    expiration != null ? expiration.getTime() : 0L);
         } catch (ExpiredJwtException e) {
-            System.err.println("Token validation failed: Token expired - " + e.getMessage());
-            return false;
+            log.debug("Token validation failed: Token expired - {}", e.getMessage());
+            return null;
         } catch (UnsupportedJwtException e) {
-            System.err.println("Token validation failed: Unsupported JWT - " + e.getMessage());
-            return false;
+            log.debug("Token validation failed: Unsupported JWT - {}", e.getMessage());
+            return null;
         } catch (MalformedJwtException e) {
-            System.err.println("Token validation failed: Malformed JWT - " + e.getMessage());
-            return false;
+            log.debug("Token validation failed: Malformed JWT - {}", e.getMessage());
+            return null;
         } catch (SignatureException e) {
-            System.err.println("Token validation failed: Invalid signature - " + e.getMessage());
-            return false;
+            log.debug("Token validation failed: Invalid signature - {}", e.getMessage());
+            return null;
         } catch (IllegalArgumentException e) {
-            System.err.println("Token validation failed: Illegal argument - " + e.getMessage());
-            return false;
+            log.debug("Token validation failed: Illegal argument - {}", e.getMessage());
+            return null;
         } catch (Exception e) {
-            System.err.println("Token validation failed: " + e.getMessage());
-            return false;
+            log.debug("Token validation failed: {}", e.getMessage());
+            return null;
         }
     }
 
-    public boolean isTokenExpired(String token) {
-        try {
-            if (token == null || token.trim().isEmpty()) {
-                return true;
-            }
-
-            // Remove Bearer prefix if present
-            if (token.startsWith("Bearer ")) {
-                token = token.substring(7);
+    private void cache(String digest, JwtPrincipal principal, long now) {
+        if (verifiedTokens.size() >= tokenCacheSize) {
+            verifiedTokens.values().removeIf(entry -> entry.isExpired(now));
+        }
+        // Still full of live tokens: drop an arbitrary tenth rather than grow past the bound
+        if (verifiedTokens.size() >= tokenCacheSize) {
+            int toRemove = Math.max(1, tokenCacheSize / 10);
+            Iterator<String> keys = verifiedTokens.keySet().iterator();
+            while (toRemove-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
             }
+        }
+        verifiedTokens.put(digest, principal);
+    }
 
-            Date expiration = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getExpiration();
-
-            boolean expired = expiration.before(new Date());
-            if (expired) {
-                System.out.println("Token is expired. Expiration: " + expiration + ", Current: " + new Date());
-            }
-            return expired;
-        } catch (Exception e) {
-            System.err.println("Error checking token expiration: " + e.getMessage());
-            return true;
+    private static String digest(String token) {
+        // A MessageDigest is not thread-safe and is cheap to create; a per-thread copy would never be
+        // reused under virtual threads
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 }
@@ -0,0 +1,96 @@
+package com.knowallrates.goldapi.security;
+
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+// The one list of endpoints that need no token, used by SecurityConfig (permitAll / ignoring) and
+// JwtAuthenticationFilter. Patterns are either exact paths or "/prefix/**", which matches "/prefix"
+// and everything below it, the same as Spring's matchers. They are compiled into a character trie so a
+// lookup walks the request path once without allocating.
+public final class PublicEndpoints {
+
+    // Served without the security filter chain at all: read-only public data and product images
+    public static final String[] UNSECURED = {
+            "/api/rate/**",
+            "/api/uploads/products/**"
+    };
+
+    // Go through the chain (CORS, headers) but need no authentication
+    public static final String[] PERMIT_ALL = {
+            "/api/auth/signin",
+            "/api/auth/signup",
+            "/api/auth/forgot-password",
+            "/api/auth/reset-password",
+            "/api/auth/verify-reset-token/**",
+            "/api/health",
+            "/health",
+            "/",
+            "/h2-console/**"
+    };
+
+    private static final Node UNSECURED_ROUTES = compile(UNSECURED);
+    private static final Node PUBLIC_ROUTES = compile(UNSECURED, PERMIT_ALL);
+
+    // Matches UNSECURED; passed to WebSecurity#ignoring
+    public static final RequestMatcher UNSECURED_MATCHER = request -> matches(UNSECURED_ROUTES, request.getRequestURI());
+
+    private PublicEndpoints() {}
+
+    public static boolean isPublic(String path) {
+        return matches(PUBLIC_ROUTES, path);
+    }
+
+    private static boolean matches(Node root, String path) {
+        if (path == null) {
+            return false;
+        }
+        Node node = root;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            node = c < Node.WIDTH ? node.children[c] : null;
+            if (node == null) {
+                return false;
+            }
+            if (node.subtree && (i + 1 == length || path.charAt(i + 1) == '/')) {
+                return true;
+            }
+        }
+        return node.exact;
+    }
+
+    private static Node compile(String[]... patternLists) {
+        Node root = new Node();
+        for (String[] patterns : patternLists) {
+            for (String pattern : patterns) {
+                boolean subtree = pattern.endsWith("/**");
+                String path = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+                Node node = root;
+                for (int i = 0; i < path.length(); i++) {
+                    char c = path.charAt(i);
+                    if (c >= Node.WIDTH) {
+                        throw new IllegalArgumentException("Non-ASCII public endpoint: " + pattern);
+                    }
+                    if (node.children[c] == null) {
+                        node.children[c] = new Node();
+                    }
+                    node = node.children[c];
+                }
+                if (subtree) {
+                    node.subtree = true;
+                } else {
+                    node.exact = true;
+                }
+            }
+        }
+        return root;
+    }
+
+    // ASCII-indexed trie node; request paths outside ASCII simply do not match
+    private static final class Node {
+        private static final int WIDTH = 128;
+
+        private final Node[] children = new Node[WIDTH];
+        private boolean exact;
+        private boolean subtree;
+    }
+}
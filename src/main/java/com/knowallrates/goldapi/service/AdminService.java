@@ -1,12 +1,16 @@
 package com.knowallrates.goldapi.service;
 
 import com.knowallrates.goldapi.dto.UpdateRateRequest;
+import com.knowallrates.goldapi.event.RatesChangedEvent;
 import com.knowallrates.goldapi.model.Asset;
 import com.knowallrates.goldapi.model.GoldRate;
 import com.knowallrates.goldapi.repository.AssetRepository;
 import com.knowallrates.goldapi.repository.GoldRateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -14,12 +18,17 @@ import java.util.Optional;
 
 @Service
 public class AdminService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminService.class);
     
     @Autowired
     private GoldRateRepository goldRateRepository;
     
     @Autowired
     private AssetRepository assetRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     public List<Asset> getAvailableAssets() {
         return assetRepository.findByIsActive(true);
@@ -47,7 +56,9 @@ public class AdminService {
             goldRate = new GoldRate(date, request.getRate22k(), request.getRate24k());
         }
         
-        return goldRateRepository.save(goldRate);
+        GoldRate savedRate = goldRateRepository.save(goldRate);
+        eventPublisher.publishEvent(RatesChangedEvent.of(savedRate));
+        return savedRate;
     }
     
     public void initializeDefaultAssets() {
@@ -56,7 +67,7 @@ public class AdminService {
             assetRepository.save(new Asset("silver", "Silver"));
             assetRepository.save(new Asset("bitcoin", "Bitcoin"));
             assetRepository.save(new Asset("altcoin", "Altcoin"));
-            System.out.println("Default assets initialized");
+            log.info("Default assets initialized");
         }
     }
 }
@@ -9,179 +9,153 @@ import com.knowallrates.goldapi.repository.AssetRepository;
 import com.knowallrates.goldapi.repository.AssetRateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class AssetRateService {
 
+    // How far back /rates/all looks for an asset's latest rate when today's row is missing
+    private static final int LATEST_RATE_LOOKBACK_DAYS = 7;
+
     @Autowired
     private AssetRateRepository assetRateRepository;
 
     @Autowired
     private AssetRepository assetRepository;
 
+    @Autowired
+    private RateSeriesStore rateSeriesStore;
+
+    private final Set<String> knownAssets = ConcurrentHashMap.newKeySet();
+
+    @Transactional(readOnly = true)
     public AllRatesResponse getAllTodayRates() {
         LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
-
-        List<Asset> activeAssets = assetRepository.findByIsActive(true);
-        List<AllRatesResponse.AssetRateInfo> rateInfos = new ArrayList<>();
 
-        for (Asset asset : activeAssets) {
-            // Get today's rate
-            Optional<AssetRate> todayRateOpt = assetRateRepository.findByAssetAndDate(asset, today);
-            AssetRate todayRate;
+        // Single query for all active assets with their recent rows (newest first), grouped in memory.
+        // The latest row is "today" and the one before it "yesterday"; RateBackfillService fills gaps.
+        Map<Long, Asset> activeAssets = new LinkedHashMap<>();
+        Map<Long, AssetRate> todayRates = new HashMap<>();
+        Map<Long, AssetRate> yesterdayRates = new HashMap<>();
+
+        List<Object[]> rows = assetRateRepository.findActiveAssetsWithRatesBetween(
+                today.minusDays(LATEST_RATE_LOOKBACK_DAYS), today);
+        for (Object[] row : rows) {
+            Asset asset = (Asset) row[0];
+            AssetRate rate = (AssetRate) row[1];
+            activeAssets.putIfAbsent(asset.getId(), asset);
+            if (rate != null && todayRates.putIfAbsent(asset.getId(), rate) != null) {
+                yesterdayRates.putIfAbsent(asset.getId(), rate);
+            }
+        }
 
-            if (todayRateOpt.isEmpty()) {
-                todayRate = createMockRate(asset, today);
-                assetRateRepository.save(todayRate);
-            } else {
-                todayRate = todayRateOpt.get();
+        List<AllRatesResponse.AssetRateInfo> rateInfos = new ArrayList<>(activeAssets.size());
+        LocalDateTime lastUpdated = null;
+        for (Asset asset : activeAssets.values()) {
+            AssetRate todayRate = todayRates.get(asset.getId());
+            if (todayRate == null) {
+                continue;
             }
+            AssetRate yesterdayRate = yesterdayRates.getOrDefault(asset.getId(), todayRate);
+            rateInfos.add(buildRateInfo(asset, todayRate, yesterdayRate));
+            lastUpdated = latest(lastUpdated, todayRate.getUpdatedAt());
+            lastUpdated = latest(lastUpdated, yesterdayRate.getUpdatedAt());
+        }
 
-            // Get yesterday's rate for comparison
-            Optional<AssetRate> yesterdayRateOpt = assetRateRepository.findByAssetAndDate(asset, yesterday);
-            AssetRate yesterdayRate;
+        AllRatesResponse response = new AllRatesResponse(today.toString(), rateInfos);
+        // Last modification of the rows behind this payload, so identical data gives an identical body
+        response.setTimestamp(lastUpdated != null ? lastUpdated.toString() : today.atStartOfDay().toString());
+        return response;
+    }
 
-            if (yesterdayRateOpt.isEmpty()) {
-                yesterdayRate = createMockRate(asset, yesterday);
-                assetRateRepository.save(yesterdayRate);
-            } else {
-                yesterdayRate = yesterdayRateOpt.get();
-            }
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
 
-            // Create rate info
-            AllRatesResponse.AssetRateInfo rateInfo;
-            if (asset.getName().equals("gold")) {
-                rateInfo = new AllRatesResponse.AssetRateInfo(
-                    asset.getName(), asset.getDisplayName(),
-                    todayRate.getRate22k(), todayRate.getRate24k()
-                );
-                
-                // Calculate change for 22k (primary rate for gold)
-                if (todayRate.getRate22k() != null && yesterdayRate.getRate22k() != null) {
-                    double change = todayRate.getRate22k() - yesterdayRate.getRate22k();
-                    double changePercent = (change / yesterdayRate.getRate22k()) * 100;
-                    rateInfo.setChange(Math.round(change * 100.0) / 100.0);
-                    rateInfo.setChangePercent(Math.round(changePercent * 100.0) / 100.0);
-                    rateInfo.setTrend(change > 0 ? "up" : change < 0 ? "down" : "stable");
-                }
-            } else {
-                rateInfo = new AllRatesResponse.AssetRateInfo(
-                    asset.getName(), asset.getDisplayName(),
-                    todayRate.getRatePerUnit(), todayRate.getUnit()
-                );
-                
-                // Calculate change for per unit rate
-                if (todayRate.getRatePerUnit() != null && yesterdayRate.getRatePerUnit() != null) {
-                    double change = todayRate.getRatePerUnit() - yesterdayRate.getRatePerUnit();
-                    double changePercent = (change / yesterdayRate.getRatePerUnit()) * 100;
-                    rateInfo.setChange(Math.round(change * 100.0) / 100.0);
-                    rateInfo.setChangePercent(Math.round(changePercent * 100.0) / 100.0);
-                    rateInfo.setTrend(change > 0 ? "up" : change < 0 ? "down" : "stable");
-                }
+    private AllRatesResponse.AssetRateInfo buildRateInfo(Asset asset, AssetRate todayRate, AssetRate yesterdayRate) {
+        AllRatesResponse.AssetRateInfo rateInfo;
+        if (asset.getName().equals("gold")) {
+            rateInfo = new AllRatesResponse.AssetRateInfo(
+                asset.getName(), asset.getDisplayName(),
+                todayRate.getRate22k(), todayRate.getRate24k()
+            );
+
+            // Calculate change for 22k (primary rate for gold)
+            if (todayRate.getRate22k() != null && yesterdayRate.getRate22k() != null) {
+                double change = todayRate.getRate22k() - yesterdayRate.getRate22k();
+                double changePercent = (change / yesterdayRate.getRate22k()) * 100;
+                rateInfo.setChange(Math.round(change * 100.0) / 100.0);
+                rateInfo.setChangePercent(Math.round(changePercent * 100.0) / 100.0);
+                rateInfo.setTrend(change > 0 ? "up" : change < 0 ? "down" : "stable");
+            }
+        } else {
+            rateInfo = new AllRatesResponse.AssetRateInfo(
+                asset.getName(), asset.getDisplayName(),
+                todayRate.getRatePerUnit(), todayRate.getUnit()
+            );
+
+            // Calculate change for per unit rate
+            if (todayRate.getRatePerUnit() != null && yesterdayRate.getRatePerUnit() != null) {
+                double change = todayRate.getRatePerUnit() - yesterdayRate.getRatePerUnit();
+                double changePercent = (change / yesterdayRate.getRatePerUnit()) * 100;
+                rateInfo.setChange(Math.round(change * 100.0) / 100.0);
+                rateInfo.setChangePercent(Math.round(changePercent * 100.0) / 100.0);
+                rateInfo.setTrend(change > 0 ? "up" : change < 0 ? "down" : "stable");
             }
-
-            rateInfos.add(rateInfo);
         }
+        return rateInfo;
+    }
 
-        return new AllRatesResponse(today.toString(), rateInfos);
+    // Changes whenever a rate of this asset is written; 0 for unknown assets
+    public long getAssetHistoryVersion(String assetName) {
+        return rateSeriesStore.assetRates(assetName).version();
     }
 
+    // Served from RateSeriesStore, so no transaction and no pooled connection once the asset is known
     public HistoryResponse getAssetHistory(String assetName, int days) {
-        Optional<Asset> assetOpt = assetRepository.findByName(assetName);
-        if (assetOpt.isEmpty()) {
+        if (!assetExists(assetName)) {
             throw new RuntimeException("Asset not found: " + assetName);
         }
 
-        Asset asset = assetOpt.get();
-        LocalDate startDate = LocalDate.now().minusDays(days - 1);
-
-        // Get existing rates
-        List<AssetRate> existingRates = assetRateRepository.findByAssetAndDateGreaterThanEqualOrderByDateDesc(asset, startDate);
-
-        // Create mock data for missing dates
-        for (int i = 0; i < days; i++) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            boolean exists = existingRates.stream()
-                    .anyMatch(rate -> rate.getDate().equals(date));
-
-            if (!exists) {
-                AssetRate mockRate = createMockRate(asset, date);
-                assetRateRepository.save(mockRate);
-                existingRates.add(mockRate);
-            }
+        LocalDate today = LocalDate.now();
+        long fromDay = today.minusDays(days - 1).toEpochDay();
+        long toDay = today.toEpochDay();
+
+        // Slice the sorted series for the window; gold carries 22K/24K, other assets the per-unit rate
+        RateSeriesStore.Series series = rateSeriesStore.assetRates(assetName);
+        int from = series.ceilingIndex(fromDay);
+        int to = series.ceilingIndex(toDay + 1);
+        List<HistoryResponse.HistoryRate> historyRates = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            historyRates.add(new HistoryResponse.HistoryRate(series.isoDate(i), series.primary(i), series.secondary(i)));
         }
 
-        // Get updated rates and sort
-        List<AssetRate> rates = assetRateRepository.findByAssetAndDateGreaterThanEqualOrderByDateDesc(asset, startDate);
-        rates.sort((a, b) -> a.getDate().compareTo(b.getDate()));
-
-        // Convert to response format
-        List<HistoryResponse.HistoryRate> historyRates = rates.stream()
-                .map(rate -> {
-                    if (asset.getName().equals("gold")) {
-                        return new HistoryResponse.HistoryRate(
-                                rate.getDate().toString(),
-                                rate.getRate22k(),
-                                rate.getRate24k()
-                        );
-                    } else {
-                        return new HistoryResponse.HistoryRate(
-                                rate.getDate().toString(),
-                                rate.getRatePerUnit(),
-                                null
-                        );
-                    }
-                })
-                .collect(Collectors.toList());
-
         return new HistoryResponse(historyRates);
     }
 
-    private AssetRate createMockRate(Asset asset, LocalDate date) {
-        switch (asset.getName().toLowerCase()) {
-            case "gold":
-                double base22k = 5800 + (Math.random() * 100);
-                double base24k = 6300 + (Math.random() * 100);
-                long daysSinceEpoch = date.toEpochDay();
-                double variation = Math.sin(daysSinceEpoch * 0.1) * 50;
-                return new AssetRate(
-                    asset, date,
-                    Math.round((base22k + variation) * 100.0) / 100.0,
-                    Math.round((base24k + variation) * 100.0) / 100.0
-                );
-                
-            case "silver":
-                double silverBase = 70 + (Math.random() * 10); // 70-80 per gram
-                double silverVariation = Math.sin(date.toEpochDay() * 0.15) * 5;
-                return new AssetRate(
-                    asset, date,
-                    Math.round((silverBase + silverVariation) * 100.0) / 100.0,
-                    "gram"
-                );
-                
-            case "bitcoin":
-                double btcBase = 4000000 + (Math.random() * 1000000); // 40-50 lakh range
-                double btcVariation = Math.sin(date.toEpochDay() * 0.2) * 500000;
-                return new AssetRate(
-                    asset, date,
-                    Math.round((btcBase + btcVariation) * 100.0) / 100.0,
-                    "coin"
-                );
-                
-            default:
-                return new AssetRate(
-                    asset, date,
-                    100.0 + (Math.random() * 50),
-                    "unit"
-                );
+    // An asset with rates in the store exists; any other is looked up once and remembered, since
+    // asset rows are only ever added
+    private boolean assetExists(String assetName) {
+        if (knownAssets.contains(assetName) || rateSeriesStore.assetRates(assetName).size() > 0) {
+            return true;
+        }
+        if (assetRepository.findByName(assetName).isPresent()) {
+            knownAssets.add(assetName);
+            return true;
         }
+        return false;
     }
 }
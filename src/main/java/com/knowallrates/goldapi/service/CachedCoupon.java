@@ -0,0 +1,72 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.model.Coupon;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Immutable copy of an active coupon with its rules precomputed: the validity window as epoch millis
+// (open ends as Long.MIN/MAX_VALUE) and the discount as a factor and cap. usedCount is as of the last
+// cache refresh; redemption itself always goes to the database.
+public final class CachedCoupon {
+    private final Long id;
+    private final String code;
+    private final Coupon.DiscountType discountType;
+    private final double discountValue;
+    private final double percentFactor;
+    private final double minimumOrderAmount;
+    private final double maximumDiscountAmount;
+    private final Integer usageLimit;
+    private final int usedCount;
+    private final long validFromMillis;
+    private final long validUntilMillis;
+    // Set when a redemption hit usageLimit, until the next refresh brings the real count
+    private volatile boolean exhausted;
+
+    // Constructors
+    public CachedCoupon(Coupon coupon, ZoneId zone) {
+        this.id = coupon.getId();
+        this.code = coupon.getCode();
+        this.discountType = coupon.getDiscountType();
+        this.discountValue = coupon.getDiscountValue();
+        this.percentFactor = coupon.getDiscountValue() / 100;
+        this.minimumOrderAmount = coupon.getMinimumOrderAmount() != null ? coupon.getMinimumOrderAmount() : 0.0;
+        this.maximumDiscountAmount = coupon.getMaximumDiscountAmount() != null ? coupon.getMaximumDiscountAmount() : Double.MAX_VALUE;
+        this.usageLimit = coupon.getUsageLimit();
+        this.usedCount = coupon.getUsedCount() != null ? coupon.getUsedCount() : 0;
+        this.validFromMillis = toMillis(coupon.getValidFrom(), zone, Long.MIN_VALUE);
+        this.validUntilMillis = toMillis(coupon.getValidUntil(), zone, Long.MAX_VALUE);
+    }
+
+    // Window and minimum order; the usage limit is CouponRedemptionCounter's call
+    public boolean isValidAt(long nowMillis, double orderAmount) {
+        return nowMillis >= validFromMillis && nowMillis <= validUntilMillis && orderAmount >= minimumOrderAmount;
+    }
+
+    public boolean isWithinUsageLimit() {
+        return !exhausted && (usageLimit == null || usedCount < usageLimit);
+    }
+
+    public void markExhausted() {
+        exhausted = true;
+    }
+
+    public double discountFor(double orderAmount) {
+        double discount = discountType == Coupon.DiscountType.PERCENTAGE ? orderAmount * percentFactor : discountValue;
+        discount = Math.min(discount, maximumDiscountAmount);
+        return Math.round(discount * 100.0) / 100.0;
+    }
+
+    private static long toMillis(LocalDateTime time, ZoneId zone, long open) {
+        return time != null ? time.atZone(zone).toInstant().toEpochMilli() : open;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getCode() { return code; }
+
+    public Integer getUsageLimit() { return usageLimit; }
+
+    public int getUsedCount() { return usedCount; }
+}
@@ -0,0 +1,18 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.CartResponse;
+
+// Cart operations behind /api/shop/cart. CartService works directly on the carts tables;
+// MemoryCartEngine (app.cart.engine=memory) keeps active carts in memory and writes them behind.
+public interface CartEngine {
+
+    CartResponse getCart(String userEmail);
+
+    CartResponse addToCart(String userEmail, Long productId, Integer quantity);
+
+    CartResponse updateCartItem(String userEmail, Long cartItemId, Integer quantity);
+
+    void removeFromCart(String userEmail, Long cartItemId);
+
+    void clearCart(String userEmail);
+}
@@ -3,14 +3,29 @@ package com.knowallrates.goldapi.service;
 import com.knowallrates.goldapi.dto.CartResponse;
 import com.knowallrates.goldapi.model.*;
 import com.knowallrates.goldapi.repository.*;
+import com.knowallrates.goldapi.security.AuthenticatedUserResolver;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+// Cart totals are maintained incrementally: every item change applies its price difference to the
+// cart row, so a mutation touches only that item and the cart header. reconcileTotals() recomputes
+// them from the items periodically in case a delta was ever lost. This is the default cart engine;
+// MemoryCartEngine replaces it when app.cart.engine=memory.
 @Service
-public class CartService {
+public class CartService implements CartEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
+    // Half a paisa: floating-point noise in the running totals stays below this, real drift does not
+    private static final double TOTAL_TOLERANCE = 0.005;
 
     @Autowired
     private CartRepository cartRepository;
@@ -22,10 +37,11 @@ public class CartService {
     private ProductRepository productRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuthenticatedUserResolver authenticatedUserResolver;
 
+    @Override
     public CartResponse getCart(String userEmail) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
@@ -41,12 +57,13 @@ public class CartService {
             cart = cartOpt.get();
         }
 
-        return new CartResponse(cart);
+        return toResponse(cart.getId());
     }
 
+    @Override
     @Transactional
     public CartResponse addToCart(String userEmail, Long productId, Integer quantity) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
@@ -77,44 +94,42 @@ public class CartService {
         // Check if item already exists in cart
         Optional<CartItem> existingItemOpt = cartItemRepository.findByCartAndProduct(cart, product);
         
+        double delta;
         if (existingItemOpt.isPresent()) {
             // Update existing item
             CartItem existingItem = existingItemOpt.get();
+            double previousTotal = existingItem.getTotalPrice();
             existingItem.setQuantity(existingItem.getQuantity() + quantity);
             cartItemRepository.save(existingItem);
+            delta = existingItem.getTotalPrice() - previousTotal;
         } else {
             // Create new cart item
             CartItem cartItem = new CartItem(cart, product, quantity);
             cartItemRepository.save(cartItem);
+            delta = cartItem.getTotalPrice();
         }
 
         // Update cart total
-        updateCartTotal(cart);
+        applyToTotal(cart, delta);
 
-        return new CartResponse(cart);
+        return toResponse(cart.getId());
     }
 
+    @Override
     @Transactional
     public CartResponse updateCartItem(String userEmail, Long cartItemId, Integer quantity) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
 
-        Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
-        if (cartItemOpt.isEmpty()) {
-            throw new RuntimeException("Cart item not found");
-        }
-
-        CartItem cartItem = cartItemOpt.get();
-        
-        // Verify ownership
-        if (!cartItem.getCart().getUser().getEmail().equals(userEmail)) {
-            throw new RuntimeException("Unauthorized access to cart item");
-        }
+        CartItem cartItem = findOwnedItem(userEmail, cartItemId);
+        double previousTotal = cartItem.getTotalPrice();
 
+        double delta;
         if (quantity <= 0) {
             cartItemRepository.delete(cartItem);
+            delta = -previousTotal;
         } else {
             // Check stock
             if (cartItem.getProduct().getStockQuantity() < quantity) {
@@ -123,43 +138,34 @@ public class CartService {
             
             cartItem.setQuantity(quantity);
             cartItemRepository.save(cartItem);
+            delta = cartItem.getTotalPrice() - previousTotal;
         }
 
         // Update cart total
-        updateCartTotal(cartItem.getCart());
+        applyToTotal(cartItem.getCart(), delta);
 
-        return new CartResponse(cartItem.getCart());
+        return toResponse(cartItem.getCart().getId());
     }
 
+    @Override
     @Transactional
     public void removeFromCart(String userEmail, Long cartItemId) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
 
-        Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
-        if (cartItemOpt.isEmpty()) {
-            throw new RuntimeException("Cart item not found");
-        }
-
-        CartItem cartItem = cartItemOpt.get();
-        
-        // Verify ownership
-        if (!cartItem.getCart().getUser().getEmail().equals(userEmail)) {
-            throw new RuntimeException("Unauthorized access to cart item");
-        }
-
-        Cart cart = cartItem.getCart();
+        CartItem cartItem = findOwnedItem(userEmail, cartItemId);
         cartItemRepository.delete(cartItem);
         
         // Update cart total
-        updateCartTotal(cart);
+        applyToTotal(cartItem.getCart(), -cartItem.getTotalPrice());
     }
 
+    @Override
     @Transactional
     public void clearCart(String userEmail) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
@@ -168,16 +174,50 @@ public class CartService {
         if (cartOpt.isPresent()) {
             Cart cart = cartOpt.get();
             cartItemRepository.deleteByCart(cart);
+            cartRepository.resetTotal(cart.getId(), LocalDateTime.now());
             cart.setTotalAmount(0.0);
-            cartRepository.save(cart);
         }
     }
 
-    private void updateCartTotal(Cart cart) {
-        double total = cart.getItems().stream()
-                .mapToDouble(CartItem::getTotalPrice)
-                .sum();
-        cart.setTotalAmount(total);
-        cartRepository.save(cart);
+    // Safety net for the incremental totals; normally finds nothing to fix
+    @Scheduled(fixedDelayString = "${app.cart.reconcile-ms:900000}", initialDelayString = "${app.cart.reconcile-ms:900000}")
+    @Transactional
+    public void reconcileTotals() {
+        int fixed = cartRepository.reconcileTotals(TOTAL_TOLERANCE);
+        if (fixed > 0) {
+            log.warn("Reconciled {} cart totals that had drifted from their items", fixed);
+        }
+    }
+
+    // Items and their product details in one statement; the total is summed from the same rows so
+    // the response is consistent even if the running total is awaiting reconciliation
+    private CartResponse toResponse(Long cartId) {
+        List<CartResponse.CartItemResponse> items = cartItemRepository.findResponsesByCartId(cartId);
+        double total = items.stream().mapToDouble(CartResponse.CartItemResponse::getTotalPrice).sum();
+        return new CartResponse(cartId, items, total);
+    }
+
+    private CartItem findOwnedItem(String userEmail, Long cartItemId) {
+        Optional<CartItem> cartItemOpt = cartItemRepository.findOwnedItem(cartItemId, userEmail);
+        if (cartItemOpt.isPresent()) {
+            return cartItemOpt.get();
+        }
+        // Only the failure path pays for telling the two errors apart
+        if (cartItemRepository.existsById(cartItemId)) {
+            throw new RuntimeException("Unauthorized access to cart item");
+        }
+        throw new RuntimeException("Cart item not found");
+    }
+
+    private void applyToTotal(Cart cart, double delta) {
+        if (delta == 0) {
+            return;
+        }
+        cartRepository.addToTotal(cart.getId(), delta, LocalDateTime.now());
+        // A cart that is still an unloaded proxy will read the new total when it is first used
+        if (Hibernate.isInitialized(cart)) {
+            double current = cart.getTotalAmount() != null ? cart.getTotalAmount() : 0.0;
+            cart.setTotalAmount(current + delta);
+        }
     }
 }
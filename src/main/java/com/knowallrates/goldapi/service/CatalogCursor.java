@@ -0,0 +1,37 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.model.Product;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+// Opaque catalog cursor: the (createdAt, id) of the last product on a page, base64url-encoded so
+// clients treat it as a token rather than building their own
+public final class CatalogCursor {
+
+    private CatalogCursor() {}
+
+    public static String encode(Product last) {
+        String key = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null or blank means the first page
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('|');
+            LocalDateTime createdAt = LocalDateTime.parse(key.substring(0, separator));
+            Long id = Long.valueOf(key.substring(separator + 1));
+            return ScrollPosition.forward(Map.of("createdAt", createdAt, "id", id));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid catalog cursor");
+        }
+    }
+}
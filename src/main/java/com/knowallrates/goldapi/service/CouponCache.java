@@ -0,0 +1,65 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.event.CouponsChangedEvent;
+import com.knowallrates.goldapi.model.Coupon;
+import com.knowallrates.goldapi.repository.CouponRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Every active coupon, keyed by normalized code, so coupon validation never reads the database.
+// The whole map is rebuilt and swapped on admin changes (CouponsChangedEvent) and on a schedule
+// that picks up used counts and anything changed outside the admin API.
+@Service
+public class CouponCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponCache.class);
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    private volatile Map<String, CachedCoupon> coupons = Map.of();
+
+    public static String normalize(String code) {
+        return code == null ? "" : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    // Null when no active coupon has this code
+    public CachedCoupon get(String code) {
+        return coupons.get(normalize(code));
+    }
+
+    public int size() {
+        return coupons.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.coupons.cache-refresh-ms:60000}", initialDelayString = "${app.coupons.cache-refresh-ms:60000}")
+    public void refresh() {
+        ZoneId zone = ZoneId.systemDefault();
+        Map<String, CachedCoupon> loaded = new HashMap<>();
+        for (Coupon coupon : couponRepository.findByIsActiveTrue()) {
+            loaded.put(normalize(coupon.getCode()), new CachedCoupon(coupon, zone));
+        }
+        coupons = Map.copyOf(loaded);
+        log.debug("Coupon cache refreshed with {} active coupons", loaded.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponsChanged(CouponsChangedEvent event) {
+        refresh();
+    }
+}
@@ -0,0 +1,261 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.model.Coupon;
+import com.knowallrates.goldapi.repository.CouponRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Coupon redemption that never over-redeems past usageLimit. Ordinary coupons take one use with a
+// conditional UPDATE in the order's transaction. Codes listed in app.coupons.hot-codes (flash sales)
+// instead claim uses from the database in blocks, in their own transaction, and hand them out from
+// striped in-memory counters, so checkouts touch the coupons row once per block rather than per order.
+// Uses taken by orders that roll back go back to the counter; blocks left unused are returned to the
+// database by the periodic flush and at shutdown, so used_count over-reports only by what is on loan.
+@Service
+public class CouponRedemptionCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponRedemptionCounter.class);
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.coupons.hot-codes:}")
+    private String hotCodesProperty;
+
+    @Value("${app.coupons.hot-block-size:50}")
+    private int blockSize;
+
+    @Value("${app.coupons.hot-stripes:8}")
+    private int stripes;
+
+    private Set<String> hotCodes;
+    private TransactionTemplate claimTransaction;
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        hotCodes = Arrays.stream(hotCodesProperty.split(","))
+                .map(CouponCache::normalize)
+                .filter(code -> !code.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        // Blocks must be committed whatever happens to the order that triggered the claim
+        claimTransaction = new TransactionTemplate(transactionManager);
+        claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!hotCodes.isEmpty()) {
+            log.info("Hot coupon codes {} claim redemptions in blocks of {}", hotCodes, blockSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leases.forEach((couponId, lease) -> returnUnused(couponId, lease));
+    }
+
+    public boolean isHot(CachedCoupon coupon) {
+        return hotCodes.contains(CouponCache.normalize(coupon.getCode()));
+    }
+
+    // Cheap pre-check for validation; redeem() is the authoritative answer
+    public boolean hasRemaining(CachedCoupon coupon) {
+        if (coupon.isWithinUsageLimit()) {
+            return true;
+        }
+        Lease lease = leases.get(coupon.getId());
+        return lease != null && lease.available() > 0;
+    }
+
+    // Takes one use for the current transaction; false once usageLimit is reached
+    public boolean redeem(CachedCoupon coupon) {
+        if (!isHot(coupon)) {
+            return redeemOne(coupon);
+        }
+
+        Lease lease = leases.computeIfAbsent(coupon.getId(), id -> new Lease(stripes));
+        if (!lease.take()) {
+            // One checkout claims the next block in its own transaction, on a second connection. The
+            // others must not queue behind it while holding their order's connection, or a busy pool
+            // deadlocks; they take a single use in their own transaction like an ordinary coupon.
+            if (!lease.refillLock.tryLock()) {
+                return redeemOne(coupon);
+            }
+            try {
+                if (!lease.take() && !claimInto(coupon.getId(), lease)) {
+                    coupon.markExhausted();
+                    return false;
+                }
+            } finally {
+                lease.refillLock.unlock();
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        lease.release();
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private boolean redeemOne(CachedCoupon coupon) {
+        if (couponRepository.incrementUsedCount(coupon.getId(), 1) == 1) {
+            return true;
+        }
+        // Stop offering it until the next cache refresh
+        coupon.markExhausted();
+        return false;
+    }
+
+    // Gives back blocks that sat unused since the previous run
+    @Scheduled(fixedDelayString = "${app.coupons.hot-flush-ms:60000}")
+    public void flushIdle() {
+        leases.forEach((couponId, lease) -> {
+            if (!lease.usedSinceFlush) {
+                returnUnused(couponId, lease);
+            }
+            lease.usedSinceFlush = false;
+        });
+    }
+
+    // Claims a block and keeps all but the use taken by the caller
+    private boolean claimInto(Long couponId, Lease lease) {
+        Integer claimed = claimTransaction.execute(status -> claimBlock(couponId));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+        lease.add(claimed - 1);
+        lease.usedSinceFlush = true;
+        return true;
+    }
+
+    private int claimBlock(Long couponId) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Coupon current = couponRepository.findById(couponId).orElse(null);
+            if (current == null) {
+                return 0;
+            }
+            int size = blockSize;
+            if (current.getUsageLimit() != null) {
+                size = Math.min(size, current.getUsageLimit() - usedCount(current));
+            }
+            if (size <= 0) {
+                return 0;
+            }
+            // Another instance may have claimed in between; re-read and try a smaller block
+            if (couponRepository.incrementUsedCount(couponId, size) == 1) {
+                return size;
+            }
+        }
+        return 0;
+    }
+
+    private static int usedCount(Coupon coupon) {
+        return coupon.getUsedCount() != null ? coupon.getUsedCount() : 0;
+    }
+
+    private void returnUnused(Long couponId, Lease lease) {
+        int unused = lease.drain();
+        if (unused == 0) {
+            return;
+        }
+        try {
+            claimTransaction.executeWithoutResult(status -> couponRepository.decrementUsedCount(couponId, unused));
+        } catch (RuntimeException e) {
+            // Keep them; the next flush tries again
+            lease.add(unused);
+            log.warn("Could not return {} unused redemptions of coupon {}: {}", unused, couponId, e.getMessage());
+        }
+    }
+
+    // Claimed-but-unused redemptions of one coupon, spread over stripes so concurrent checkouts
+    // mostly decrement different counters
+    private static final class Lease {
+        private final AtomicInteger[] stripes;
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile boolean usedSinceFlush;
+
+        private Lease(int stripeCount) {
+            stripes = new AtomicInteger[Math.max(1, stripeCount)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new AtomicInteger();
+            }
+        }
+
+        private boolean take() {
+            int home = home();
+            for (int i = 0; i < stripes.length; i++) {
+                AtomicInteger stripe = stripes[(home + i) % stripes.length];
+                int available;
+                while ((available = stripe.get()) > 0) {
+                    if (stripe.compareAndSet(available, available - 1)) {
+                        if (!usedSinceFlush) {
+                            usedSinceFlush = true;
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void release() {
+            stripes[home()].incrementAndGet();
+        }
+
+        private void add(int count) {
+            for (int i = 0; i < stripes.length; i++) {
+                int share = count / stripes.length + (i < count % stripes.length ? 1 : 0);
+                if (share > 0) {
+                    stripes[i].addAndGet(share);
+                }
+            }
+        }
+
+        private int drain() {
+            int drained = 0;
+            for (AtomicInteger stripe : stripes) {
+                drained += stripe.getAndSet(0);
+            }
+            return drained;
+        }
+
+        private int available() {
+            int available = 0;
+            for (AtomicInteger stripe : stripes) {
+                available += stripe.get();
+            }
+            return available;
+        }
+
+        private int home() {
+            return (int) (Thread.currentThread().threadId() % stripes.length);
+        }
+    }
+}
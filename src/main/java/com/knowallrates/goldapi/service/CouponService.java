@@ -0,0 +1,90 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.CouponRequest;
+import com.knowallrates.goldapi.event.CouponsChangedEvent;
+import com.knowallrates.goldapi.model.Coupon;
+import com.knowallrates.goldapi.repository.CouponRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Admin maintenance of coupons; every change is published so CouponCache reloads after commit
+@Service
+public class CouponService {
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<Coupon> getAllCoupons() {
+        return couponRepository.findAll();
+    }
+
+    @Transactional
+    public Coupon createCoupon(CouponRequest request) {
+        String code = CouponCache.normalize(request.getCode());
+        if (couponRepository.findFirstByCodeIgnoreCase(code).isPresent()) {
+            throw new RuntimeException("Coupon code already exists: " + code);
+        }
+
+        Coupon coupon = new Coupon(code, request.getDescription(), request.getDiscountType(), request.getDiscountValue());
+        applyRequest(coupon, request);
+        coupon = couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponsChangedEvent(coupon.getId()));
+        return coupon;
+    }
+
+    @Transactional
+    public Coupon updateCoupon(Long id, CouponRequest request) {
+        Coupon coupon = couponRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Coupon not found with id: " + id));
+
+        String code = CouponCache.normalize(request.getCode());
+        couponRepository.findFirstByCodeIgnoreCase(code)
+                .filter(other -> !other.getId().equals(id))
+                .ifPresent(other -> {
+                    throw new RuntimeException("Coupon code already exists: " + code);
+                });
+
+        coupon.setCode(code);
+        coupon.setDescription(request.getDescription());
+        coupon.setDiscountType(request.getDiscountType());
+        coupon.setDiscountValue(request.getDiscountValue());
+        applyRequest(coupon, request);
+        coupon = couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponsChangedEvent(coupon.getId()));
+        return coupon;
+    }
+
+    // Deactivates rather than deletes; orders keep referring to the code
+    @Transactional
+    public void deactivateCoupon(Long id) {
+        Coupon coupon = couponRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Coupon not found with id: " + id));
+        coupon.setIsActive(false);
+        couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponsChangedEvent(id));
+    }
+
+    private void applyRequest(Coupon coupon, CouponRequest request) {
+        if (request.getValidFrom() != null && request.getValidUntil() != null
+                && request.getValidUntil().isBefore(request.getValidFrom())) {
+            throw new RuntimeException("Coupon validUntil is before validFrom");
+        }
+        coupon.setMinimumOrderAmount(request.getMinimumOrderAmount() != null ? request.getMinimumOrderAmount() : 0.0);
+        coupon.setMaximumDiscountAmount(request.getMaximumDiscountAmount());
+        coupon.setUsageLimit(request.getUsageLimit());
+        coupon.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+        coupon.setValidFrom(request.getValidFrom());
+        coupon.setValidUntil(request.getValidUntil());
+        if (coupon.getCreatedAt() == null) {
+            coupon.setCreatedAt(LocalDateTime.now());
+        }
+    }
+}
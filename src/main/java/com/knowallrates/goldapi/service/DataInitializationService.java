@@ -8,15 +8,23 @@ import com.knowallrates.goldapi.repository.GoldPredictionRepository;
 import com.knowallrates.goldapi.repository.GoldRateRepository;
 import com.knowallrates.goldapi.repository.UserRepository;
 import com.knowallrates.goldapi.repository.AssetRepository;
+import com.knowallrates.goldapi.repository.BulkIngestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class DataInitializationService implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataInitializationService.class);
     
     @Autowired
     private GoldRateRepository goldRateRepository;
@@ -33,6 +41,12 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private BulkIngestRepository bulkIngestRepository;
+    
+    @Value("${app.rates.seed-days:15}")
+    private int seedDays;
+    
     @Override
     public void run(String... args) throws Exception {
         initializeUsers();
@@ -53,9 +67,10 @@ public class DataInitializationService implements CommandLineRunner {
             admin.setIsActive(true);
             
             userRepository.save(admin);
-            System.out.println("✅ Default admin user created: admin@knowallrates.com / admin123");
+            // Known default credentials: warn so they stand out in the startup log
+            log.warn("Default admin user created: admin@knowallrates.com / admin123");
         } else {
-            System.out.println("✅ Admin user already exists");
+            log.info("Admin user already exists");
         }
     }
     
@@ -65,24 +80,25 @@ public class DataInitializationService implements CommandLineRunner {
             assetRepository.save(new Asset("silver", "Silver"));
             assetRepository.save(new Asset("bitcoin", "Bitcoin"));
             assetRepository.save(new Asset("altcoin", "Altcoin"));
-            System.out.println("✅ Default assets initialized");
+            log.info("Default assets initialized");
         } else {
-            System.out.println("✅ Assets already exist");
+            log.info("Assets already exist");
         }
     }
     
     private void initializeGoldRates() {
         // Check if we already have data
         if (goldRateRepository.count() > 0) {
-            System.out.println("✅ Gold rates data already exists, skipping initialization");
+            log.info("Gold rates data already exists, skipping initialization");
             return;
         }
         
-        System.out.println("Initializing gold rates data...");
+        log.info("Initializing gold rates data...");
         
-        // Create sample data for the last 15 days
+        // Create sample data for the configured number of days, inserted as one JDBC batch
         LocalDate today = LocalDate.now();
-        for (int i = 14; i >= 0; i--) {
+        List<GoldRate> rates = new ArrayList<>(seedDays);
+        for (int i = seedDays - 1; i >= 0; i--) {
             LocalDate date = today.minusDays(i);
             double base22k = 5800 + (i * 10) + (Math.random() * 50);
             double base24k = 6300 + (i * 10) + (Math.random() * 50);
@@ -93,10 +109,11 @@ public class DataInitializationService implements CommandLineRunner {
                 Math.round(base24k * 100.0) / 100.0
             );
             
-            goldRateRepository.save(rate);
+            rates.add(rate);
         }
+        bulkIngestRepository.insertGoldRates(rates);
         
-        System.out.println("✅ Gold rates data initialized successfully");
+        log.info("Gold rates data initialized successfully ({} days)", rates.size());
     }
     
     private void initializePredictions() {
@@ -104,11 +121,11 @@ public class DataInitializationService implements CommandLineRunner {
         
         // Check if prediction already exists
         if (goldPredictionRepository.findByPredictionDate(tomorrow).isPresent()) {
-            System.out.println("✅ Prediction data already exists, skipping initialization");
+            log.info("Prediction data already exists, skipping initialization");
             return;
         }
         
-        System.out.println("Initializing prediction data...");
+        log.info("Initializing prediction data...");
         
         // Create prediction for tomorrow
         GoldPrediction prediction = new GoldPrediction(
@@ -121,6 +138,6 @@ public class DataInitializationService implements CommandLineRunner {
         
         goldPredictionRepository.save(prediction);
         
-        System.out.println("✅ Prediction data initialized successfully");
+        log.info("Prediction data initialized successfully");
     }
 }
@@ -0,0 +1,216 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.EmailOutboxStats;
+import com.knowallrates.goldapi.event.EmailQueuedEvent;
+import com.knowallrates.goldapi.model.EmailOutbox;
+import com.knowallrates.goldapi.model.Order;
+import com.knowallrates.goldapi.model.User;
+import com.knowallrates.goldapi.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Transactional outbox for outgoing mail. enqueue* writes the rendered message in the caller's
+// transaction; after commit the row is handed to a small bounded worker pool, and a poller picks up
+// anything the pool rejected, anything that failed and is due for a retry, and rows left behind by a restart.
+// Workers claim a row with a conditional UPDATE, so the after-commit hand-off and the poller never send twice.
+@Service
+public class EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Also read by ConnectionPoolLimitFilter, so the default lives only here
+    @Value("${app.email.outbox.workers:8}")
+    private int workers;
+
+    @Value("${app.email.outbox.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${app.email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    // How long a worker owns a claimed row before the poller may retry it
+    @Value("${app.email.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${app.email.outbox.poll-batch-size:100}")
+    private int pollBatchSize;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalSendMillis = new AtomicLong();
+    private final AtomicLong maxSendMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    // Must run inside the transaction that creates the order; nothing is sent unless it commits
+    @Transactional
+    public void enqueueOrderConfirmation(User user, Order order, List<OrderService.CartItemData> items) {
+        EmailOutbox email = new EmailOutbox(EmailOutbox.EmailType.ORDER_CONFIRMATION, user.getEmail(),
+                emailService.orderConfirmationSubject(order),
+                emailService.renderOrderConfirmation(user.getFullName(), order, items));
+        email = emailOutboxRepository.save(email);
+        eventPublisher.publishEvent(new EmailQueuedEvent(email.getId()));
+    }
+
+    @TransactionalEventListener
+    public void onEmailQueued(EmailQueuedEvent event) {
+        submit(event.getEmailId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-ms:30000}")
+    public void pollDue() {
+        // Leave room in the queue for after-commit hand-offs
+        int room = Math.min(pollBatchSize, executor.getThreadPoolExecutor().getQueue().remainingCapacity() / 2);
+        if (room <= 0) {
+            return;
+        }
+        for (Long id : emailOutboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, room))) {
+            submit(id);
+        }
+    }
+
+    public EmailOutboxStats getStats() {
+        EmailOutboxStats stats = new EmailOutboxStats();
+        for (Object[] row : emailOutboxRepository.countByStatus()) {
+            stats.getRowsByStatus().put(row[0].toString(), (Long) row[1]);
+        }
+        stats.setQueueDepth(executor.getThreadPoolExecutor().getQueue().size());
+        stats.setActiveWorkers(executor.getActiveCount());
+        stats.setSent(sent.get());
+        stats.setRetried(retried.get());
+        stats.setFailed(failed.get());
+        stats.setRejected(rejected.get());
+        long attempts = sent.get() + retried.get() + failed.get();
+        stats.setAverageSendMs(attempts > 0 ? totalSendMillis.get() / attempts : 0);
+        stats.setMaxSendMs(maxSendMillis.get());
+        return stats;
+    }
+
+    private void submit(Long id) {
+        try {
+            executor.execute(() -> deliver(id));
+        } catch (TaskRejectedException e) {
+            // The row stays due; the poller retries it once the queue drains
+            rejected.incrementAndGet();
+        }
+    }
+
+    private void deliver(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                emailOutboxRepository.claim(id, now, now.plus(Duration.ofMillis(leaseMs))));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        EmailOutbox email = emailOutboxRepository.findById(id).orElse(null);
+        if (email == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            emailService.sendHtmlEmail(email.getRecipient(), email.getSubject(), email.getBody());
+            recordLatency(started);
+            email.setStatus(EmailOutbox.Status.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+            sent.incrementAndGet();
+        } catch (RuntimeException e) {
+            recordLatency(started);
+            String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            email.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutbox.Status.FAILED);
+                failed.incrementAndGet();
+                log.error("Giving up on email {} to {} after {} attempts: {}", id, email.getRecipient(), email.getAttempts(), error);
+            } else {
+                email.setStatus(EmailOutbox.Status.PENDING);
+                email.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMs(email.getAttempts()))));
+                retried.incrementAndGet();
+                log.warn("Email {} attempt {} failed, retrying at {}: {}", id, email.getAttempts(), email.getNextAttemptAt(), error);
+            }
+        }
+
+        // Not save(email): if the send outlived the lease another worker may own the row now, and its
+        // outcome must not be overwritten by this one
+        Integer completed = transactionTemplate.execute(status -> emailOutboxRepository.complete(id, email.getAttempts(),
+                email.getStatus(), email.getSentAt(), email.getNextAttemptAt(), email.getLastError()));
+        if (completed == null || completed == 0) {
+            log.warn("Email {} attempt {} outlived its {} ms lease and was re-claimed; its outcome ({}) was not recorded",
+                    id, email.getAttempts(), leaseMs, email.getStatus());
+        }
+    }
+
+    // Exponential: initial, 2x, 4x ... capped at max-backoff-ms
+    private long backoffMs(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(initialBackoffMs << shift, maxBackoffMs);
+    }
+
+    private void recordLatency(long startedNanos) {
+        long millis = (System.nanoTime() - startedNanos) / 1_000_000;
+        totalSendMillis.addAndGet(millis);
+        maxSendMillis.accumulateAndGet(millis, Math::max);
+    }
+}
@@ -0,0 +1,170 @@
+package com.knowallrates.goldapi.service;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// An HTML email template parsed once into literal segments and parameter slots. {{name}} placeholders
+// are bound to positions in the parameter list given to compile(), so rendering is a walk over two arrays
+// with no parsing, map lookups or format strings. Values are written by type: text is HTML-escaped,
+// Double gets two decimals, dates use DATE_TIME, and a Fragment is written raw (nested templates).
+public final class EmailTemplate {
+
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
+
+    private static final String LOCATION = "templates/email/";
+    // Room per placeholder on top of the literal text when sizing the output buffer
+    private static final int VALUE_ALLOWANCE = 64;
+
+    // Writes itself straight into the buffer of the template it is rendered into
+    @FunctionalInterface
+    public interface Fragment {
+        void appendTo(StringBuilder out);
+    }
+
+    private final String name;
+    private final String[] literals;
+    private final int[] slots;
+    private final int parameterCount;
+    private final int initialCapacity;
+
+    private EmailTemplate(String name, String[] literals, int[] slots, int parameterCount) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.initialCapacity = literalLength + slots.length * VALUE_ALLOWANCE;
+    }
+
+    // Loads classpath:templates/email/<name>.html
+    public static EmailTemplate load(String name, String... parameters) {
+        ClassPathResource resource = new ClassPathResource(LOCATION + name + ".html");
+        try (InputStream in = resource.getInputStream()) {
+            return compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8), parameters);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load email template " + name, e);
+        }
+    }
+
+    public static EmailTemplate compile(String name, String source, String... parameters) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        boolean[] used = new boolean[parameters.length];
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in email template " + name);
+            }
+            String placeholder = source.substring(open + 2, close).trim();
+            int slot = Arrays.asList(parameters).indexOf(placeholder);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {{" + placeholder + "}} in email template " + name);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            used[slot] = true;
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+
+        for (int i = 0; i < parameters.length; i++) {
+            if (!used[i]) {
+                throw new IllegalArgumentException("Parameter " + parameters[i] + " is not used by email template " + name);
+            }
+        }
+        return new EmailTemplate(name, literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(), parameters.length);
+    }
+
+    // Values are in compile() parameter order. A fresh buffer sized from the literal text rather than
+    // one kept per thread, which virtual threads would never reuse.
+    public String render(Object... values) {
+        StringBuilder out = new StringBuilder(initialCapacity);
+        render(out, values);
+        return out.toString();
+    }
+
+    // For Fragments: render into the buffer that is already being written
+    public void render(StringBuilder out, Object... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Email template " + name + " takes " + parameterCount
+                    + " values, got " + values.length);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, values[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    public static Fragment money(double amount) {
+        return out -> appendMoney(out, amount);
+    }
+
+    // Same output as String.format("%.2f"): HALF_UP on the shortest decimal form of the double, so
+    // 1.005 prints 1.01 and 2.675 prints 2.68, where rounding amount * 100 in binary would not
+    public static void appendMoney(StringBuilder out, double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            out.append(amount);
+            return;
+        }
+        out.append(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    private static void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof CharSequence text) {
+            appendEscaped(out, text);
+        } else if (value instanceof Fragment fragment) {
+            fragment.appendTo(out);
+        } else if (value instanceof Double amount) {
+            appendMoney(out, amount);
+        } else if (value instanceof Integer number) {
+            out.append(number.intValue());
+        } else if (value instanceof Long number) {
+            out.append(number.longValue());
+        } else if (value instanceof TemporalAccessor temporal) {
+            DATE_TIME.formatTo(temporal, out);
+        } else {
+            appendEscaped(out, value.toString());
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, CharSequence text) {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(text, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, length);
+    }
+}
@@ -3,6 +3,8 @@ package com.knowallrates.goldapi.service;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -14,6 +16,8 @@ import java.util.UUID;
 @Service
 public class FileStorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
@@ -50,12 +54,12 @@ public class FileStorageService {
         try {
             if (Files.exists(fileToDelete)) {
                 Files.delete(fileToDelete);
-                System.out.println("Deleted file: " + fileToDelete);
+                log.debug("Deleted file: {}", fileToDelete);
             } else {
-                System.out.println("File not found for deletion: " + fileToDelete);
+                log.debug("File not found for deletion: {}", fileToDelete);
             }
         } catch (IOException e) {
-            System.err.println("Could not delete file: " + fileToDelete + ". " + e.getMessage());
+            log.warn("Could not delete file: {}. {}", fileToDelete, e.getMessage());
         }
     }
 }
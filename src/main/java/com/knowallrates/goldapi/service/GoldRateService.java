@@ -3,56 +3,130 @@ package com.knowallrates.goldapi.service;
 import com.knowallrates.goldapi.dto.HistoryResponse;
 import com.knowallrates.goldapi.dto.PredictionResponse;
 import com.knowallrates.goldapi.dto.TodayRateResponse;
+import com.knowallrates.goldapi.event.RatesChangedEvent;
 import com.knowallrates.goldapi.model.GoldPrediction;
 import com.knowallrates.goldapi.model.GoldRate;
 import com.knowallrates.goldapi.repository.GoldPredictionRepository;
 import com.knowallrates.goldapi.repository.GoldRateRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class GoldRateService {
 
+    private static final Logger log = LoggerFactory.getLogger(GoldRateService.class);
+
     @Autowired
     private GoldRateRepository goldRateRepository;
 
     @Autowired
     private GoldPredictionRepository goldPredictionRepository;
 
+    @Autowired
+    private RateSeriesStore rateSeriesStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Precomputed /today payload, swapped atomically; only rate writes and date rollover rebuild it
+    private final AtomicReference<TodaySnapshot> todaySnapshot = new AtomicReference<>();
+    // A ReentrantLock rather than synchronized: the rebuild does JDBC, and a virtual thread blocked inside
+    // synchronized pins its carrier thread on Java 21
+    private final ReentrantLock todaySnapshotLock = new ReentrantLock();
+    // Only the rebuild reads the database; serving the snapshot must not check out a connection
+    private TransactionTemplate rebuildTransaction;
+
+    @PostConstruct
+    public void init() {
+        rebuildTransaction = new TransactionTemplate(transactionManager);
+        rebuildTransaction.setReadOnly(true);
+    }
+
     public TodayRateResponse getTodayRates() {
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
-
-        // Get today's rate (or create mock data if not exists)
-        Optional<GoldRate> todayRateOpt = goldRateRepository.findByDate(today);
-        GoldRate todayRate;
-
-        if (todayRateOpt.isEmpty()) {
-            // Create mock data for today
-            todayRate = createMockRate(today);
-            goldRateRepository.save(todayRate);
-        } else {
-            todayRate = todayRateOpt.get();
+        TodaySnapshot snapshot = todaySnapshot.get();
+        if (snapshot != null && snapshot.date.equals(LocalDate.now())) {
+            return snapshot.response;
         }
 
-        // Get yesterday's rate (or create mock data if not exists)
-        Optional<GoldRate> yesterdayRateOpt = goldRateRepository.findByDate(yesterday);
-        GoldRate yesterdayRate;
+        // First request of the day (or before warm-up): rebuild once, other callers wait on the lock
+        todaySnapshotLock.lock();
+        try {
+            snapshot = todaySnapshot.get();
+            if (snapshot != null && snapshot.date.equals(LocalDate.now())) {
+                return snapshot.response;
+            }
+            return rebuildTodaySnapshot().response;
+        } finally {
+            todaySnapshotLock.unlock();
+        }
+    }
 
-        if (yesterdayRateOpt.isEmpty()) {
-            // Create mock data for yesterday
-            yesterdayRate = createMockRate(yesterday);
-            goldRateRepository.save(yesterdayRate);
-        } else {
-            yesterdayRate = yesterdayRateOpt.get();
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmTodaySnapshot() {
+        try {
+            refreshTodaySnapshot();
+        } catch (RuntimeException e) {
+            // An empty database must not block startup; the first request or backfill event retries
+            log.warn("Could not warm today's rate snapshot: {}", e.getMessage());
         }
+    }
+
+    // Before RateStreamService pushes the change, so new subscribers get the refreshed snapshot
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesChanged(RatesChangedEvent event) {
+        refreshTodaySnapshot();
+    }
+
+    @Scheduled(cron = "0 0 0 * * *") // Midnight rollover
+    public void rollOverTodaySnapshot() {
+        refreshTodaySnapshot();
+    }
+
+    private void refreshTodaySnapshot() {
+        todaySnapshotLock.lock();
+        try {
+            rebuildTodaySnapshot();
+        } finally {
+            todaySnapshotLock.unlock();
+        }
+    }
+
+    // Caller must hold todaySnapshotLock
+    private TodaySnapshot rebuildTodaySnapshot() {
+        TodaySnapshot snapshot = new TodaySnapshot(LocalDate.now(), rebuildTransaction.execute(status -> buildTodayRates()));
+        todaySnapshot.set(snapshot);
+        return snapshot;
+    }
+
+    private TodayRateResponse buildTodayRates() {
+        // Latest two rates on or before today; the backfill job keeps these current
+        List<GoldRate> latestRates = goldRateRepository.findLatestTwoRatesOnOrBefore(LocalDate.now());
+        if (latestRates.isEmpty()) {
+            throw new RuntimeException("No gold rates available");
+        }
+        GoldRate todayRate = latestRates.get(0);
+        GoldRate yesterdayRate = latestRates.size() > 1 ? latestRates.get(1) : todayRate;
 
         // Calculate changes
         double change22k = todayRate.getGold22k() - yesterdayRate.getGold22k();
@@ -60,77 +134,76 @@ public class GoldRateService {
         double changePercent22k = (change22k / yesterdayRate.getGold22k()) * 100;
         double changePercent24k = (change24k / yesterdayRate.getGold24k()) * 100;
 
-        // Build response
-        TodayRateResponse response = new TodayRateResponse();
-        response.setDate(todayRate.getDate().toString());
-        response.setGold22k(todayRate.getGold22k());
-        response.setGold24k(todayRate.getGold24k());
-        response.setChange22k(Math.round(change22k * 100.0) / 100.0);
-        response.setChange24k(Math.round(change24k * 100.0) / 100.0);
-        response.setChangePercent22k(Math.round(changePercent22k * 100.0) / 100.0);
-        response.setChangePercent24k(Math.round(changePercent24k * 100.0) / 100.0);
-        response.setTimestamp(LocalDateTime.now().toString());
-
-        // Set yesterday's data
-        TodayRateResponse.YesterdayRate yesterdayData = new TodayRateResponse.YesterdayRate();
-        yesterdayData.setDate(yesterdayRate.getDate().toString());
-        yesterdayData.setGold22k(yesterdayRate.getGold22k());
-        yesterdayData.setGold24k(yesterdayRate.getGold24k());
-        yesterdayData.setTimestamp(yesterdayRate.getUpdatedAt().toString());
-        response.setYesterday(yesterdayData);
-
-        return response;
+        TodayRateResponse.YesterdayRate yesterdayData = new TodayRateResponse.YesterdayRate(
+                yesterdayRate.getDate().toString(),
+                yesterdayRate.getGold22k(),
+                yesterdayRate.getGold24k(),
+                String.valueOf(yesterdayRate.getUpdatedAt()));
+
+        return new TodayRateResponse(
+                todayRate.getDate().toString(),
+                todayRate.getGold22k(),
+                todayRate.getGold24k(),
+                Math.round(change22k * 100.0) / 100.0,
+                Math.round(change24k * 100.0) / 100.0,
+                Math.round(changePercent22k * 100.0) / 100.0,
+                Math.round(changePercent24k * 100.0) / 100.0,
+                // Last modification of the rows behind this payload, so identical data gives an identical body
+                latestUpdate(todayRate, yesterdayRate).toString(),
+                yesterdayData);
     }
 
-    public HistoryResponse getHistoricalRates(int days) {
-        LocalDate startDate = LocalDate.now().minusDays(days - 1);
-
-        // Get existing rates
-        List<GoldRate> existingRates = goldRateRepository.findRatesFromDate(startDate);
+    private static LocalDateTime latestUpdate(GoldRate first, GoldRate second) {
+        LocalDateTime a = first.getUpdatedAt() != null ? first.getUpdatedAt() : first.getCreatedAt();
+        LocalDateTime b = second.getUpdatedAt() != null ? second.getUpdatedAt() : second.getCreatedAt();
+        if (a == null || b == null) {
+            return a != null ? a : b != null ? b : first.getDate().atStartOfDay();
+        }
+        return a.isAfter(b) ? a : b;
+    }
 
-        // Create mock data for missing dates
-        for (int i = 0; i < days; i++) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            boolean exists = existingRates.stream()
-                    .anyMatch(rate -> rate.getDate().equals(date));
+    // Published snapshots are never mutated after construction; TodayRateResponse has no setters
+    private static final class TodaySnapshot {
+        private final LocalDate date;
+        private final TodayRateResponse response;
 
-            if (!exists) {
-                GoldRate mockRate = createMockRate(date);
-                goldRateRepository.save(mockRate);
-                existingRates.add(mockRate);
-            }
+        private TodaySnapshot(LocalDate date, TodayRateResponse response) {
+            this.date = date;
+            this.response = response;
         }
+    }
 
-        // Get updated rates and sort
-        List<GoldRate> rates = goldRateRepository.findRatesFromDate(startDate);
-        rates.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+    // Changes whenever any gold rate is written; cheap enough to check before building a history body
+    public long getHistoryVersion() {
+        return rateSeriesStore.goldRates().version();
+    }
 
-        // Convert to response format
-        List<HistoryResponse.HistoryRate> historyRates = rates.stream()
-                .map(rate -> new HistoryResponse.HistoryRate(
-                        rate.getDate().toString(),
-                        rate.getGold22k(),
-                        rate.getGold24k()
-                ))
-                .collect(Collectors.toList());
+    // Served from RateSeriesStore alone, so no transaction and no pooled connection
+    public HistoryResponse getHistoricalRates(int days) {
+        LocalDate today = LocalDate.now();
+        long fromDay = today.minusDays(days - 1).toEpochDay();
+        long toDay = today.toEpochDay();
+
+        // Slice the sorted series for the window; gaps are filled by RateBackfillService, not here
+        RateSeriesStore.Series series = rateSeriesStore.goldRates();
+        int from = series.ceilingIndex(fromDay);
+        int to = series.ceilingIndex(toDay + 1);
+        List<HistoryResponse.HistoryRate> historyRates = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            historyRates.add(new HistoryResponse.HistoryRate(series.isoDate(i), series.primary(i), series.secondary(i)));
+        }
 
         return new HistoryResponse(historyRates);
     }
 
+    @Transactional(readOnly = true)
     public PredictionResponse getPrediction() {
         LocalDate tomorrow = LocalDate.now().plusDays(1);
 
-        // Get existing prediction or create new one
-        Optional<GoldPrediction> predictionOpt = goldPredictionRepository.findByPredictionDate(tomorrow);
-        GoldPrediction prediction;
-
-        if (predictionOpt.isEmpty()) {
-            // Create mock prediction
-            prediction = createMockPrediction(tomorrow);
-            goldPredictionRepository.save(prediction);
-        } else {
-            prediction = predictionOpt.get();
-        }
+        // Tomorrow's prediction, or the nearest upcoming one if the backfill job has not run yet
+        GoldPrediction prediction = goldPredictionRepository.findByPredictionDate(tomorrow)
+                .or(() -> goldPredictionRepository.findNextPrediction(LocalDate.now()))
+                .orElseThrow(() -> new RuntimeException("No prediction available"));
 
         return new PredictionResponse(
                 prediction.getPredictionDate().toString(),
@@ -140,58 +213,4 @@ public class GoldRateService {
                 prediction.getTrend().toString().toLowerCase()
         );
     }
-
-    private GoldRate createMockRate(LocalDate date) {
-        // Base rates with some realistic variation
-        double base22k = 5800 + (Math.random() * 100); // 5800-5900 range
-        double base24k = 6300 + (Math.random() * 100); // 6300-6400 range
-
-        // Add some date-based variation to make it more realistic
-        long daysSinceEpoch = date.toEpochDay();
-        double variation = Math.sin(daysSinceEpoch * 0.1) * 50;
-
-        return new GoldRate(
-                date,
-                Math.round((base22k + variation) * 100.0) / 100.0,
-                Math.round((base24k + variation) * 100.0) / 100.0
-        );
-    }
-
-    private GoldPrediction createMockPrediction(LocalDate date) {
-        // Get today's rate for prediction base
-        LocalDate today = LocalDate.now();
-        Optional<GoldRate> todayRateOpt = goldRateRepository.findByDate(today);
-
-        double predicted22k = 5850;
-        double predicted24k = 6380;
-
-        if (todayRateOpt.isPresent()) {
-            GoldRate todayRate = todayRateOpt.get();
-            // Predict slight increase/decrease based on random market conditions
-            double change = (Math.random() - 0.5) * 100; // -50 to +50 change
-            predicted22k = todayRate.getGold22k() + change;
-            predicted24k = todayRate.getGold24k() + change;
-        }
-
-        // Determine trend
-        GoldPrediction.Trend trend;
-        if (Math.random() > 0.6) {
-            trend = GoldPrediction.Trend.UP;
-        } else if (Math.random() > 0.3) {
-            trend = GoldPrediction.Trend.DOWN;
-        } else {
-            trend = GoldPrediction.Trend.STABLE;
-        }
-
-        // Random confidence between 70-95%
-        int confidence = 70 + (int) (Math.random() * 25);
-
-        return new GoldPrediction(
-                date,
-                Math.round(predicted22k * 100.0) / 100.0,
-                Math.round(predicted24k * 100.0) / 100.0,
-                confidence,
-                trend
-        );
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.knowallrates.goldapi.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free fixed-bucket latency histogram. Bucket bounds are upper limits in milliseconds; anything
+// slower lands in the overflow bucket. Snapshots are keyed "<=5ms" ... ">5000ms" for the admin JSON.
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MS.length + 1);
+
+    public void record(long millis) {
+        int bucket = 0;
+        while (bucket < BOUNDS_MS.length && millis > BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+    public void recordSince(long startedNanos) {
+        record((System.nanoTime() - startedNanos) / 1_000_000);
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            snapshot.put("<=" + BOUNDS_MS[i] + "ms", counts.get(i));
+        }
+        snapshot.put(">" + BOUNDS_MS[BOUNDS_MS.length - 1] + "ms", counts.get(BOUNDS_MS.length));
+        return snapshot;
+    }
+}
@@ -0,0 +1,271 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.MailDispatcherStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends all outgoing mail over one long-lived SMTP connection. JavaMailSender.send() connects, runs
+// EHLO/STARTTLS/AUTH and quits for every message; here a single dispatcher thread owns the Transport,
+// drains whatever callers have queued (up to batch-size) and writes the batch over the open connection.
+// The connection is recycled after max-messages-per-connection, closed after idle-close-ms without mail,
+// and reopened once if the server dropped it mid-batch.
+@Service
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${app.mail.dispatcher.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.dispatcher.batch-size:50}")
+    private int batchSize;
+
+    // Most providers cap messages per session (Gmail around 100)
+    @Value("${app.mail.dispatcher.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${app.mail.dispatcher.idle-close-ms:30000}")
+    private long idleCloseMs;
+
+    // How long submit() waits for queue space, and send() for the result
+    @Value("${app.mail.dispatcher.submit-timeout-ms:10000}")
+    private long submitTimeoutMs;
+
+    @Value("${app.mail.dispatcher.send-timeout-ms:60000}")
+    private long sendTimeoutMs;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    // Owned by the dispatcher thread
+    private Transport transport;
+    private int messagesOnConnection;
+    private volatile boolean connected;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        dispatcher = Thread.ofPlatform().name("mail-dispatcher").daemon().start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // Queues the message; the future completes once the server accepted it
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        if (!running) {
+            throw new RuntimeException("Mail dispatcher is shut down");
+        }
+        PendingMessage pending = new PendingMessage(message);
+        try {
+            if (!queue.offer(pending, submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Mail queue is full (" + queueCapacity + " messages)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while queueing mail", e);
+        }
+        return pending.result;
+    }
+
+    // Queues the message and waits for the server's answer; failures surface as RuntimeException
+    public void send(MimeMessage message) {
+        try {
+            submit(message).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for SMTP send", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending mail", e);
+        }
+    }
+
+    public MailDispatcherStats getStats() {
+        MailDispatcherStats stats = new MailDispatcherStats();
+        stats.setQueueDepth(queue.size());
+        stats.setConnected(connected);
+        stats.setSent(sent.get());
+        stats.setFailed(failed.get());
+        stats.setBatches(batches.get());
+        stats.setAverageBatchSize(batches.get() > 0 ? (double) (sent.get() + failed.get()) / batches.get() : 0);
+        stats.setConnectionsOpened(connectionsOpened.get());
+        stats.setReconnects(reconnects.get());
+        stats.setSendLatency(sendLatency.snapshot());
+        stats.setTotalLatency(totalLatency.snapshot());
+        return stats;
+    }
+
+    private void dispatchLoop() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            PendingMessage first;
+            try {
+                first = queue.poll(idleCloseMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                closeTransport();
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            deliverBatch(batch);
+            batch.clear();
+        }
+
+        // Shutting down: flush what callers already queued, then hang up
+        Thread.interrupted();
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            deliverBatch(batch);
+        }
+        closeTransport();
+    }
+
+    private void deliverBatch(List<PendingMessage> batch) {
+        batches.incrementAndGet();
+        for (PendingMessage pending : batch) {
+            try {
+                deliver(pending.message);
+                sent.incrementAndGet();
+                pending.result.complete(null);
+            } catch (MessagingException | RuntimeException e) {
+                failed.incrementAndGet();
+                pending.result.completeExceptionally(new RuntimeException("Failed to send email", e));
+            }
+            totalLatency.recordSince(pending.queuedAtNanos);
+        }
+    }
+
+    private void deliver(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            mailSender.send(message);
+            return;
+        }
+        if (transport != null && messagesOnConnection >= maxMessagesPerConnection) {
+            closeTransport();
+        }
+        prepare(message);
+        boolean reused = transport != null;
+        try {
+            sendOverTransport(message);
+        } catch (SendFailedException e) {
+            // The server answered and refused these recipients; resending would not help
+            throw e;
+        } catch (MessagingException e) {
+            closeTransport();
+            if (!reused) {
+                throw e;
+            }
+            // Most likely the server closed the idle or exhausted connection; one fresh try
+            log.debug("SMTP connection lost, reconnecting: {}", e.getMessage());
+            reconnects.incrementAndGet();
+            sendOverTransport(message);
+        }
+    }
+
+    private void sendOverTransport(MimeMessage message) throws MessagingException {
+        if (transport == null) {
+            openTransport();
+        }
+        long started = System.nanoTime();
+        transport.sendMessage(message, message.getAllRecipients());
+        sendLatency.recordSince(started);
+        messagesOnConnection++;
+    }
+
+    // What JavaMailSenderImpl.doSend does before handing a message to the Transport
+    private void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private void openTransport() throws MessagingException {
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        Transport opened = sender.getSession().getTransport(sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+        opened.connect(sender.getHost(), sender.getPort(), username, password);
+        transport = opened;
+        messagesOnConnection = 0;
+        connected = true;
+        connectionsOpened.incrementAndGet();
+    }
+
+    private void closeTransport() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+        transport = null;
+        connected = false;
+    }
+
+    private static final class PendingMessage {
+        private final MimeMessage message;
+        private final long queuedAtNanos = System.nanoTime();
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingMessage(MimeMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.CartResponse;
+import com.knowallrates.goldapi.model.Cart;
+import com.knowallrates.goldapi.model.CartItem;
+import com.knowallrates.goldapi.model.Product;
+import com.knowallrates.goldapi.model.User;
+import com.knowallrates.goldapi.repository.CartItemRepository;
+import com.knowallrates.goldapi.repository.CartRepository;
+import com.knowallrates.goldapi.repository.ProductRepository;
+import com.knowallrates.goldapi.repository.UserRepository;
+import com.knowallrates.goldapi.security.AuthenticatedUserResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Cart engine for app.cart.engine=memory. Active carts live in a concurrent map keyed by user id and
+// are changed under striped per-user locks, so add/update/remove/view touch no database once a cart is
+// loaded (adding a product that is not yet in the cart still reads that product). Changes are written
+// behind to carts/cart_items every flush-ms, inside the order's transaction at checkout, and at shutdown;
+// a crash loses at most the last flush-ms of cart edits, never an order. Carts idle for idle-evict-ms
+// are dropped from memory once written.
+//
+// Only safe with a single application instance: a second instance would keep its own copy of the same
+// cart, and each would overwrite the other's edits when it writes behind. Scaled-out deployments keep
+// app.cart.engine=database.
+//
+// Stock and prices shown for lines already in the cart are as of when the line was loaded. That is
+// the same advisory check CartService does; OrderService's conditional stock decrement is the real guard.
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.cart.engine", havingValue = "memory")
+public class MemoryCartEngine implements CartEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MemoryCartEngine.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cart.memory.lock-stripes:64}")
+    private int lockStripes;
+
+    @Value("${app.cart.memory.flush-ms:5000}")
+    private long flushMs;
+
+    @Value("${app.cart.memory.idle-evict-ms:1800000}")
+    private long idleEvictMs;
+
+    private final Map<Long, MemoryCart> carts = new ConcurrentHashMap<>();
+    private ReentrantLock[] stripes;
+    private TransactionTemplate transactionTemplate;
+
+    // Lines not yet written have no database id; they get negative ids until the cart is reloaded
+    private final AtomicLong pendingIds = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        stripes = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        log.info("Carts are kept in memory and written to the database every {} ms", flushMs);
+    }
+
+    @Override
+    public CartResponse getCart(String userEmail) {
+        return withCart(resolveUser(userEmail), false, this::toResponse);
+    }
+
+    @Override
+    public CartResponse addToCart(String userEmail, Long productId, Integer quantity) {
+        User user = resolveUser(userEmail);
+        Product product = null;
+        while (true) {
+            Product known = product;
+            CartResponse response = withCart(user, true, cart -> add(cart, productId, known, quantity));
+            if (response != null) {
+                return response;
+            }
+            // Not in the cart yet: read the product outside the lock and try again
+            product = productRepository.findById(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+        }
+    }
+
+    @Override
+    public CartResponse updateCartItem(String userEmail, Long cartItemId, Integer quantity) {
+        return withCart(resolveUser(userEmail), true, cart -> {
+            Line line = findLine(cart, cartItemId);
+            if (quantity <= 0) {
+                removeLine(cart, line);
+            } else {
+                // Check stock
+                if (line.stockQuantity < quantity) {
+                    throw new RuntimeException("Insufficient stock");
+                }
+                line.quantity = quantity;
+                cart.version++;
+            }
+            return toResponse(cart);
+        });
+    }
+
+    @Override
+    public void removeFromCart(String userEmail, Long cartItemId) {
+        withCart(resolveUser(userEmail), true, cart -> {
+            removeLine(cart, findLine(cart, cartItemId));
+            return null;
+        });
+    }
+
+    @Override
+    public void clearCart(String userEmail) {
+        withCart(resolveUser(userEmail), true, cart -> {
+            for (Line line : new ArrayList<>(cart.lines.values())) {
+                removeLine(cart, line);
+            }
+            return null;
+        });
+    }
+
+    // Called by OrderService inside the order's transaction, so checkout reads the cart it was shown.
+    // The cart is dropped from memory once the order commits (the order emptied it in the database);
+    // if the order rolls back, the cart stays dirty and the next flush writes it again. Edits are refused
+    // until then: one made after the snapshot would not be in the order, and would be dropped with the cart.
+    public void flushForCheckout(User user) {
+        MemoryCart cart = carts.get(user.getId());
+        if (cart == null) {
+            return;
+        }
+        cart.flushLock.lock();
+        try {
+            cart.checkoutPending = true;
+            Snapshot snapshot = snapshot(cart);
+            if (snapshot != null) {
+                persist(snapshot);
+            }
+        } catch (RuntimeException e) {
+            cart.checkoutPending = false;
+            throw e;
+        } finally {
+            cart.flushLock.unlock();
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(cart);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    evict(cart);
+                } else {
+                    cart.checkoutPending = false;
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.memory.flush-ms:5000}")
+    public void flushDirty() {
+        long idleBefore = System.currentTimeMillis() - idleEvictMs;
+        carts.values().forEach(cart -> {
+            if (cart.evicted || cart.checkoutPending || !cart.flushLock.tryLock()) {
+                return;
+            }
+            try {
+                flush(cart);
+                if (cart.lastAccess < idleBefore) {
+                    evictIfClean(cart);
+                }
+            } catch (RuntimeException e) {
+                // Stays dirty; the next run tries again
+                log.warn("Could not write cart of user {}: {}", cart.userId, e.getMessage());
+            } finally {
+                cart.flushLock.unlock();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int failed = 0;
+        for (MemoryCart cart : carts.values()) {
+            // An order still in flight writes its cart itself
+            if (cart.checkoutPending) {
+                continue;
+            }
+            cart.flushLock.lock();
+            try {
+                flush(cart);
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("Cart of user {} not written at shutdown: {}", cart.userId, e.getMessage());
+            } finally {
+                cart.flushLock.unlock();
+            }
+        }
+        if (failed > 0) {
+            log.error("{} carts could not be written at shutdown", failed);
+        }
+    }
+
+    private User resolveUser(String userEmail) {
+        return authenticatedUserResolver.resolve(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // Runs action on the user's cart under its stripe lock, loading the cart first if needed.
+    // Loading happens outside the lock so no request waits on another's database round trip.
+    // checkoutPending is set before the checkout snapshot takes this lock, so an edit either makes it
+    // into the snapshot or sees the flag.
+    private <T> T withCart(User user, boolean edit, Function<MemoryCart, T> action) {
+        Long userId = user.getId();
+        ReentrantLock lock = stripeFor(userId);
+        while (true) {
+            MemoryCart cart = carts.get(userId);
+            if (cart == null) {
+                MemoryCart loaded = load(user);
+                cart = Objects.requireNonNullElse(carts.putIfAbsent(userId, loaded), loaded);
+            }
+            lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                if (edit && cart.checkoutPending) {
+                    throw new RuntimeException("Checkout in progress, please try again");
+                }
+                cart.lastAccess = System.currentTimeMillis();
+                return action.apply(cart);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock stripeFor(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+
+    private MemoryCart load(User user) {
+        MemoryCart cart = new MemoryCart(user.getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<Cart> existing = cartRepository.findByUser(user);
+            if (existing.isPresent()) {
+                cart.cartId = existing.get().getId();
+                for (CartItem item : cartItemRepository.findWithProductByCart(existing.get())) {
+                    Line line = new Line(item.getId(), item.getProduct(), item.getUnitPrice(), item.getQuantity());
+                    line.persistedId = item.getId();
+                    line.persistedQuantity = item.getQuantity();
+                    cart.lines.put(line.productId, line);
+                }
+            }
+        });
+        return cart;
+    }
+
+    // Null means the product has to be read first
+    private CartResponse add(MemoryCart cart, Long productId, Product product, int quantity) {
+        Line line = cart.lines.get(productId);
+        if (line == null) {
+            if (product == null) {
+                return null;
+            }
+            // Check stock
+            if (product.getStockQuantity() < quantity) {
+                throw new RuntimeException("Insufficient stock");
+            }
+            line = new Line(pendingIds.decrementAndGet(), product, product.getFinalPrice(), quantity);
+            cart.lines.put(productId, line);
+        } else {
+            if (line.stockQuantity < quantity) {
+                throw new RuntimeException("Insufficient stock");
+            }
+            line.quantity += quantity;
+        }
+        cart.version++;
+        return toResponse(cart);
+    }
+
+    private Line findLine(MemoryCart cart, Long cartItemId) {
+        // Items of other users' carts are never in this one, so they are simply not found
+        for (Line line : cart.lines.values()) {
+            if (cartItemId.equals(line.id) || cartItemId.equals(line.persistedId)) {
+                return line;
+            }
+        }
+        throw new RuntimeException("Cart item not found");
+    }
+
+    private void removeLine(MemoryCart cart, Line line) {
+        cart.lines.remove(line.productId);
+        if (line.persistedId != null) {
+            cart.removedIds.add(line.persistedId);
+        }
+        cart.version++;
+    }
+
+    private CartResponse toResponse(MemoryCart cart) {
+        List<CartResponse.CartItemResponse> items = new ArrayList<>(cart.lines.size());
+        double total = 0;
+        for (Line line : cart.lines.values()) {
+            double lineTotal = line.totalPrice();
+            items.add(new CartResponse.CartItemResponse(line.id, line.productId, line.name, line.imageUrl,
+                    line.category, line.purity, line.weight, line.quantity, line.unitPrice, lineTotal));
+            total += lineTotal;
+        }
+        return new CartResponse(cart.cartId, items, total);
+    }
+
+    // Caller holds cart.flushLock
+    private void flush(MemoryCart cart) {
+        Snapshot snapshot = snapshot(cart);
+        if (snapshot == null) {
+            return;
+        }
+        Snapshot written = transactionTemplate.execute(status -> persist(snapshot));
+        apply(cart, written);
+    }
+
+    private Snapshot snapshot(MemoryCart cart) {
+        ReentrantLock lock = stripeFor(cart.userId);
+        lock.lock();
+        try {
+            if (cart.version == cart.flushedVersion) {
+                return null;
+            }
+            Snapshot snapshot = new Snapshot(cart.userId, cart.cartId, cart.version, new ArrayList<>(cart.removedIds));
+            for (Line line : cart.lines.values()) {
+                snapshot.lines.add(new LineSnapshot(line, line.persistedId, line.persistedQuantity, line.quantity));
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes the difference since the last flush; runs in the caller's transaction
+    private Snapshot persist(Snapshot snapshot) {
+        LocalDateTime now = LocalDateTime.now();
+        if (snapshot.cartId == null) {
+            Cart created = cartRepository.findByUser(userRepository.getReferenceById(snapshot.userId))
+                    .orElseGet(() -> cartRepository.save(new Cart(userRepository.getReferenceById(snapshot.userId))));
+            snapshot.cartId = created.getId();
+        }
+        Cart cartReference = cartRepository.getReferenceById(snapshot.cartId);
+
+        if (!snapshot.removedIds.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(snapshot.removedIds);
+        }
+
+        double total = 0;
+        for (LineSnapshot line : snapshot.lines) {
+            double lineTotal = line.line.unitPrice * line.quantity;
+            total += lineTotal;
+            if (line.persistedId == null) {
+                CartItem item = new CartItem();
+                item.setCart(cartReference);
+                item.setProduct(productRepository.getReferenceById(line.line.productId));
+                item.setUnitPrice(line.line.unitPrice);
+                item.setQuantity(line.quantity);
+                item.setCreatedAt(now);
+                line.insertedId = cartItemRepository.save(item).getId();
+            } else if (line.quantity != line.persistedQuantity) {
+                cartItemRepository.updateQuantity(line.persistedId, line.quantity, lineTotal);
+            }
+        }
+        cartRepository.setTotal(snapshot.cartId, total, now);
+        return snapshot;
+    }
+
+    // Records what the committed flush wrote; edits made meanwhile leave the cart dirty
+    private void apply(MemoryCart cart, Snapshot written) {
+        ReentrantLock lock = stripeFor(cart.userId);
+        lock.lock();
+        try {
+            cart.cartId = written.cartId;
+            cart.removedIds.removeAll(written.removedIds);
+            for (LineSnapshot line : written.lines) {
+                boolean stillInCart = cart.lines.get(line.line.productId) == line.line;
+                if (line.insertedId != null) {
+                    if (stillInCart) {
+                        line.line.persistedId = line.insertedId;
+                    } else {
+                        // Removed while it was being inserted
+                        cart.removedIds.add(line.insertedId);
+                        cart.version++;
+                    }
+                }
+                if (stillInCart) {
+                    line.line.persistedQuantity = line.quantity;
+                }
+            }
+            cart.flushedVersion = written.version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(MemoryCart cart) {
+        ReentrantLock lock = stripeFor(cart.userId);
+        lock.lock();
+        try {
+            cart.evicted = true;
+            carts.remove(cart.userId, cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIfClean(MemoryCart cart) {
+        ReentrantLock lock = stripeFor(cart.userId);
+        lock.lock();
+        try {
+            if (cart.version == cart.flushedVersion) {
+                cart.evicted = true;
+                carts.remove(cart.userId, cart);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // One user's cart; fields are guarded by the user's stripe lock, writes to the database by flushLock
+    private static final class MemoryCart {
+        private final Long userId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private final List<Long> removedIds = new ArrayList<>();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private Long cartId;
+        private long version;
+        private long flushedVersion;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private volatile boolean checkoutPending;
+        private volatile boolean evicted;
+
+        private MemoryCart(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class Line {
+        private final long id;
+        private final Long productId;
+        private final String name;
+        private final String imageUrl;
+        private final String category;
+        private final String purity;
+        private final Double weight;
+        private final int stockQuantity;
+        private final double unitPrice;
+        private int quantity;
+        private Long persistedId;
+        private int persistedQuantity;
+
+        private Line(long id, Product product, double unitPrice, int quantity) {
+            this.id = id;
+            this.productId = product.getId();
+            this.name = product.getName();
+            this.imageUrl = product.getImageUrl();
+            this.category = product.getCategory();
+            this.purity = product.getPurity();
+            this.weight = product.getWeight();
+            this.stockQuantity = product.getStockQuantity();
+            this.unitPrice = unitPrice;
+            this.quantity = quantity;
+        }
+
+        private double totalPrice() {
+            return unitPrice * quantity;
+        }
+    }
+
+    private static final class Snapshot {
+        private final Long userId;
+        private Long cartId;
+        private final long version;
+        private final List<Long> removedIds;
+        private final List<LineSnapshot> lines = new ArrayList<>();
+
+        private Snapshot(Long userId, Long cartId, long version, List<Long> removedIds) {
+            this.userId = userId;
+            this.cartId = cartId;
+            this.version = version;
+            this.removedIds = removedIds;
+        }
+    }
+
+    private static final class LineSnapshot {
+        private final Line line;
+        private final Long persistedId;
+        private final int persistedQuantity;
+        private final int quantity;
+        private Long insertedId;
+
+        private LineSnapshot(Line line, Long persistedId, int persistedQuantity, int quantity) {
+            this.line = line;
+            this.persistedId = persistedId;
+            this.persistedQuantity = persistedQuantity;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.knowallrates.goldapi.dto.OrderResponse;
 import com.knowallrates.goldapi.dto.OrderItemResponse;
 import com.knowallrates.goldapi.model.*;
 import com.knowallrates.goldapi.repository.*;
+import com.knowallrates.goldapi.security.AuthenticatedUserResolver;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,6 +17,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Comparator;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,25 +35,36 @@ public class OrderService {
     private CartItemRepository cartItemRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuthenticatedUserResolver authenticatedUserResolver;
 
     @Autowired
-    private CouponRepository couponRepository;
+    private CouponCache couponCache;
+
+    @Autowired
+    private CouponRedemptionCounter couponRedemptionCounter;
 
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+
+    // Present only when app.cart.engine=memory
+    @Autowired(required = false)
+    private MemoryCartEngine memoryCartEngine;
 
     @Transactional
     public OrderResponse createOrder(String userEmail, OrderRequest request) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
 
         User user = userOpt.get();
+        if (memoryCartEngine != null) {
+            // Write the in-memory cart into this transaction before reading it back
+            memoryCartEngine.flushForCheckout(user);
+        }
         Optional<Cart> cartOpt = cartRepository.findByUser(user);
         if (cartOpt.isEmpty()) {
             throw new RuntimeException("Cart not found");
@@ -65,7 +80,7 @@ public class OrderService {
         // Create a copy of cart items data BEFORE any database operations
         List<CartItemData> cartItemsData = new ArrayList<>();
         for (CartItem item : cartItems) {
-            // Validate stock
+            // Early exit on a stock level we already loaded; decrementStock below is the real guard
             if (item.getProduct().getStockQuantity() < item.getQuantity()) {
                 throw new RuntimeException("Insufficient stock for product: " + item.getProduct().getName());
             }
@@ -80,24 +95,18 @@ public class OrderService {
             cartItemsData.add(itemData);
         }
 
-        // Calculate totals
-        double subtotal = cart.getTotalAmount();
+        // Calculate totals from the items just read; the cart's running total is only reconciled periodically
+        double subtotal = cartItemsData.stream().mapToDouble(itemData -> itemData.totalPrice).sum();
         double discountAmount = 0.0;
         double taxAmount = subtotal * 0.18; // 18% GST
         double shippingAmount = subtotal > 50000 ? 0.0 : 500.0; // Free shipping above 50k
 
         // Apply coupon if provided
         if (request.getCouponCode() != null && !request.getCouponCode().trim().isEmpty()) {
-            Optional<Coupon> couponOpt = couponRepository.findByCodeAndIsActiveTrue(request.getCouponCode());
-            if (couponOpt.isPresent()) {
-                Coupon coupon = couponOpt.get();
-                if (isValidCoupon(coupon, subtotal)) {
-                    discountAmount = calculateDiscount(coupon, subtotal);
-
-                    // Update coupon usage
-                    coupon.setUsedCount(coupon.getUsedCount() + 1);
-                    couponRepository.save(coupon);
-                }
+            CachedCoupon coupon = couponCache.get(request.getCouponCode());
+            // Taking the use is atomic against usageLimit; a coupon that ran out gives no discount
+            if (coupon != null && isValidCoupon(coupon, subtotal) && couponRedemptionCounter.redeem(coupon)) {
+                discountAmount = coupon.discountFor(subtotal);
             }
         }
 
@@ -113,19 +122,26 @@ public class OrderService {
         order.setCouponCode(request.getCouponCode());
         order.setOrderNotes(request.getOrderNotes());
 
+        // Take the stock before writing anything else. Each decrement is conditional, so two checkouts
+        // racing for the last units cannot both succeed; a miss rolls back everything taken so far.
+        // Product id order keeps concurrent checkouts of overlapping carts from deadlocking.
+        LocalDateTime now = LocalDateTime.now();
+        List<CartItemData> byProduct = new ArrayList<>(cartItemsData);
+        byProduct.sort(Comparator.comparing(itemData -> itemData.productId));
+        for (CartItemData itemData : byProduct) {
+            if (productRepository.decrementStock(itemData.productId, itemData.quantity, now) == 0) {
+                throw new RuntimeException("Insufficient stock for product: " + itemData.productName);
+            }
+        }
+
         // Save order first
         order = orderRepository.save(order);
 
         // Create order items using the copied data (not the CartItem entities)
         List<OrderItem> orderItems = new ArrayList<>();
         for (CartItemData itemData : cartItemsData) {
-            // Get fresh product reference
-            Optional<Product> productOpt = productRepository.findById(itemData.productId);
-            if (productOpt.isEmpty()) {
-                throw new RuntimeException("Product not found: " + itemData.productId);
-            }
-
-            Product product = productOpt.get();
+            // The decrement above proved the row exists; no need to load it again
+            Product product = productRepository.getReferenceById(itemData.productId);
 
             // Create OrderItem without referencing CartItem
             OrderItem orderItem = new OrderItem();
@@ -135,10 +151,6 @@ public class OrderService {
             orderItem.setUnitPrice(itemData.unitPrice);
             orderItem.setTotalPrice(itemData.totalPrice);
             orderItems.add(orderItem);
-
-            // Update product stock
-            product.setStockQuantity(product.getStockQuantity() - itemData.quantity);
-            productRepository.save(product);
         }
 
         // Set order items
@@ -146,16 +158,10 @@ public class OrderService {
 
         // NOW delete cart items - this won't affect OrderItems since we didn't reference CartItems
         cartItemRepository.deleteByCart(cart);
-        cart.setTotalAmount(0.0);
-        cartRepository.save(cart);
-
-        // Send order confirmation email
-        try {
-            emailService.sendOrderConfirmationEmail(user.getEmail(), user.getFullName(), order, cartItemsData);
-        } catch (Exception e) {
-            System.err.println("Failed to send order confirmation email: " + e.getMessage());
-            // Don't fail the order creation if email fails
-        }
+        cartRepository.resetTotal(cart.getId(), now);
+
+        // Queue the confirmation email in this transaction; it is sent after commit, off the request thread
+        emailOutboxService.enqueueOrderConfirmation(user, order, cartItemsData);
 
         // Convert to DTO to avoid circular references
         return convertToOrderResponse(order);
@@ -170,39 +176,45 @@ public class OrderService {
         Double totalPrice;
     }
 
+    @Transactional(readOnly = true)
     public List<OrderResponse> getUserOrders(String userEmail) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
 
-        List<Order> orders = orderRepository.findByUserOrderByCreatedAtDesc(userOpt.get());
+        List<Order> orders = orderRepository.findWithUserByUser(userOpt.get());
+        Map<Long, List<OrderItemResponse>> items = loadItemResponses(orders);
         return orders.stream()
-                .map(this::convertToOrderResponse)
+                .map(order -> toOrderResponse(order, items))
                 .collect(Collectors.toList());
     }
 
+    // Two queries per page whatever the number of orders and items (plus Spring's count query when
+    // the page is not the last one)
+    @Transactional(readOnly = true)
     public Page<OrderResponse> getUserOrdersPaginated(String userEmail, Pageable pageable) {
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(userEmail);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
         }
 
-        Page<Order> orders = orderRepository.findByUserOrderByCreatedAtDesc(userOpt.get(), pageable);
-        return orders.map(this::convertToOrderResponse);
+        Page<Order> orders = orderRepository.findWithUserByUser(userOpt.get(), pageable);
+        Map<Long, List<OrderItemResponse>> items = loadItemResponses(orders.getContent());
+        return orders.map(order -> toOrderResponse(order, items));
     }
 
+    @Transactional(readOnly = true)
     public Optional<OrderResponse> getOrderById(String orderId) {
-        Optional<Order> orderOpt = orderRepository.findByOrderId(orderId);
-        return orderOpt.map(this::convertToOrderResponse);
+        return orderRepository.findWithUserByOrderId(orderId)
+                .map(order -> toOrderResponse(order, loadItemResponses(List.of(order))));
     }
 
+    @Transactional(readOnly = true)
     public Optional<OrderResponse> getUserOrder(String userEmail, String orderId) {
-        Optional<Order> orderOpt = orderRepository.findByOrderId(orderId);
-        if (orderOpt.isPresent() && orderOpt.get().getUser().getEmail().equals(userEmail)) {
-            return Optional.of(convertToOrderResponse(orderOpt.get()));
-        }
-        return Optional.empty();
+        return orderRepository.findWithUserByOrderId(orderId)
+                .filter(order -> order.getUser().getEmail().equals(userEmail))
+                .map(order -> toOrderResponse(order, loadItemResponses(List.of(order))));
     }
 
     @Transactional
@@ -237,65 +249,23 @@ public class OrderService {
         return convertToOrderResponse(order);
     }
 
+    // Served entirely from CouponCache; the checkout page calls this on every keystroke
     public double validateCoupon(String couponCode, double orderAmount) {
-        Optional<Coupon> couponOpt = couponRepository.findByCodeAndIsActiveTrue(couponCode);
-        if (couponOpt.isEmpty()) {
+        CachedCoupon coupon = couponCache.get(couponCode);
+        if (coupon == null) {
             throw new RuntimeException("Invalid coupon code");
         }
 
-        Coupon coupon = couponOpt.get();
         if (!isValidCoupon(coupon, orderAmount)) {
             throw new RuntimeException("Coupon is not valid for this order");
         }
 
-        return calculateDiscount(coupon, orderAmount);
+        return coupon.discountFor(orderAmount);
     }
 
-    private boolean isValidCoupon(Coupon coupon, double orderAmount) {
-        LocalDateTime now = LocalDateTime.now();
-
-        // Check if coupon is active
-        if (!coupon.getIsActive()) {
-            return false;
-        }
-
-        // Check validity period
-        if (coupon.getValidFrom() != null && now.isBefore(coupon.getValidFrom())) {
-            return false;
-        }
-
-        if (coupon.getValidUntil() != null && now.isAfter(coupon.getValidUntil())) {
-            return false;
-        }
-
-        // Check minimum order amount
-        if (orderAmount < coupon.getMinimumOrderAmount()) {
-            return false;
-        }
-
-        // Check usage limit
-        if (coupon.getUsageLimit() != null && coupon.getUsedCount() >= coupon.getUsageLimit()) {
-            return false;
-        }
-
-        return true;
-    }
-
-    private double calculateDiscount(Coupon coupon, double orderAmount) {
-        double discount = 0.0;
-
-        if (coupon.getDiscountType() == Coupon.DiscountType.PERCENTAGE) {
-            discount = orderAmount * (coupon.getDiscountValue() / 100);
-        } else {
-            discount = coupon.getDiscountValue();
-        }
-
-        // Apply maximum discount limit if set
-        if (coupon.getMaximumDiscountAmount() != null && discount > coupon.getMaximumDiscountAmount()) {
-            discount = coupon.getMaximumDiscountAmount();
-        }
-
-        return Math.round(discount * 100.0) / 100.0;
+    // Validity window, minimum order and usage limit; inactive coupons are never in the cache
+    private boolean isValidCoupon(CachedCoupon coupon, double orderAmount) {
+        return coupon.isValidAt(System.currentTimeMillis(), orderAmount) && couponRedemptionCounter.hasRemaining(coupon);
     }
 
     private OrderResponse convertToOrderResponse(Order order) {
@@ -310,4 +280,24 @@ public class OrderService {
 
         return response;
     }
+
+    // Same as convertToOrderResponse, with items from loadItemResponses instead of the lazy collection
+    private OrderResponse toOrderResponse(Order order, Map<Long, List<OrderItemResponse>> itemsByOrder) {
+        OrderResponse response = new OrderResponse(order);
+        response.setItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>()));
+        return response;
+    }
+
+    // One query for the items of all given orders, keyed by order PK
+    private Map<Long, List<OrderItemResponse>> loadItemResponses(List<Order> orders) {
+        Map<Long, List<OrderItemResponse>> itemsByOrder = new HashMap<>();
+        if (orders.isEmpty()) {
+            return itemsByOrder;
+        }
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        for (OrderItemResponse.Summary summary : orderRepository.findItemSummaries(orderIds)) {
+            itemsByOrder.computeIfAbsent(summary.getOrderPk(), id -> new ArrayList<>()).add(summary.getItem());
+        }
+        return itemsByOrder;
+    }
 }
@@ -0,0 +1,323 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.ProductSearchResult;
+import com.knowallrates.goldapi.event.ProductsChangedEvent;
+import com.knowallrates.goldapi.model.Product;
+import com.knowallrates.goldapi.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over active products for GET /api/shop/search, replacing LIKE '%term%'
+// scans that no database index can serve. Name, category, purity, asset and description are split into
+// lower-case terms. A sorted term map answers exact and prefix matches ("neck" finds necklace), and a
+// trigram map from fragments to terms catches typos ("neklace") in words that match nothing as typed.
+// Every query word must match; hits are ranked by where the word occurs (name over category over
+// description) and how it matched (exact over prefix over trigram), and returned without a query.
+//
+// Kept current per product through ProductsChangedEvent, and rebuilt in full at startup and every
+// rebuild-ms to pick up rows written around ProductService.
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CATEGORY_WEIGHT = 2.0;
+    private static final double ATTRIBUTE_WEIGHT = 1.5;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.6;
+    private static final double TRIGRAM_MATCH = 0.4;
+    // Share of trigrams two words must have in common (Jaccard) to count as the same word
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.45;
+
+    // Product id -> score, best score first and newest product first among equals
+    private static final Comparator<Map.Entry<Long, Double>> RANKING = Map.Entry.<Long, Double>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Readers use whichever index is current; per-product updates change it in place under writeLock,
+    // full rebuilds build a new one and swap it in
+    private volatile Index index = new Index();
+    // Not synchronized: a rebuild runs JDBC under this lock, which would pin a virtual thread's carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.rebuild-ms:1800000}", initialDelayString = "${app.search.rebuild-ms:1800000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        writeLock.lock();
+        try {
+            Index rebuilt = new Index();
+            for (Product product : productRepository.findActiveWithAsset()) {
+                rebuilt.add(product);
+            }
+            index = rebuilt;
+            log.info("Product search index built: {} products, {} terms in {} ms", rebuilt.documents.size(),
+                    rebuilt.terms.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (event.getProductId() == null) {
+            rebuild();
+            return;
+        }
+        writeLock.lock();
+        try {
+            index.remove(event.getProductId());
+            productRepository.findWithAssetById(event.getProductId()).ifPresent(index::add);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Best matches first; empty when the query has no words
+    public List<ProductSearchResult> search(String query, int limit) {
+        List<String> words = tokenize(query).stream().distinct().toList();
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        Index current = index;
+        Map<Long, Double> scores = null;
+        for (String word : words) {
+            // Every word must match, so later words only score products the earlier ones found
+            Map<Long, Double> wordScores = current.match(word, scores);
+            if (scores != null) {
+                for (Map.Entry<Long, Double> hit : wordScores.entrySet()) {
+                    hit.setValue(hit.getValue() + scores.get(hit.getKey()));
+                }
+            }
+            scores = wordScores;
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Keep only the best `limit` hits instead of sorting them all
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<Long, Double> hit : scores.entrySet()) {
+            best.add(hit);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+
+        List<ProductSearchResult> results = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> hit : ranked) {
+            // Missing when the product was removed while this search ran
+            Document document = current.documents.get(hit.getKey());
+            if (document != null) {
+                results.add(document.toResult(hit.getValue()));
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return index.documents.size();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Padded like pg_trgm ("  ring "), so short words and typos near either end still share trigrams
+    private static Set<String> trigrams(String term) {
+        String padded = "  " + term + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static final class Index {
+        private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+        // term -> products containing it, with the term's field weight in each; sorted so a prefix is
+        // one range of keys
+        private final ConcurrentSkipListMap<String, Map<Long, Double>> terms = new ConcurrentSkipListMap<>();
+        // trigram -> terms containing it
+        private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+        // Caller holds writeLock
+        private void add(Product product) {
+            if (!Boolean.TRUE.equals(product.getIsActive())) {
+                return;
+            }
+            Map<String, Double> weights = new HashMap<>();
+            addField(weights, product.getName(), NAME_WEIGHT);
+            addField(weights, product.getCategory(), CATEGORY_WEIGHT);
+            addField(weights, product.getPurity(), ATTRIBUTE_WEIGHT);
+            addField(weights, product.getAsset() != null ? product.getAsset().getDisplayName() : null, ATTRIBUTE_WEIGHT);
+            addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+            // Document first, postings after: a reader never finds a posting without its document
+            documents.put(product.getId(), new Document(product, weights.keySet()));
+            weights.forEach((term, weight) -> terms.computeIfAbsent(term, this::newTerm).put(product.getId(), weight));
+        }
+
+        // Caller holds writeLock
+        private void remove(Long productId) {
+            Document document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms) {
+                Map<Long, Double> postings = terms.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                    for (String trigram : trigrams(term)) {
+                        Set<String> termsWithTrigram = trigrams.get(trigram);
+                        if (termsWithTrigram != null) {
+                            termsWithTrigram.remove(term);
+                            if (termsWithTrigram.isEmpty()) {
+                                trigrams.remove(trigram);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private Map<Long, Double> newTerm(String term) {
+            for (String trigram : trigrams(term)) {
+                trigrams.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+            return new ConcurrentHashMap<>();
+        }
+
+        private static void addField(Map<String, Double> weights, String text, double weight) {
+            for (String term : tokenize(text)) {
+                weights.merge(term, weight, Double::sum);
+            }
+        }
+
+        // Best score per product for one query word, limited to candidates when there are any
+        private Map<Long, Double> match(String word, Map<Long, Double> candidates) {
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Double>> term : terms.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+                score(scores, candidates, term.getValue(), term.getKey().equals(word) ? EXACT_MATCH : PREFIX_MATCH);
+            }
+            if (!scores.isEmpty()) {
+                // Typo matching is only a fallback for words that match nothing as typed
+                return scores;
+            }
+
+            Set<String> wordTrigrams = trigrams(word);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : wordTrigrams) {
+                Set<String> termsWithTrigram = trigrams.get(trigram);
+                if (termsWithTrigram != null) {
+                    for (String term : termsWithTrigram) {
+                        shared.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                String term = candidate.getKey();
+                int common = candidate.getValue();
+                // Similarity is at most common / wordTrigrams; skip terms that cannot reach the threshold
+                // before working out their own trigrams
+                if (common < MIN_TRIGRAM_SIMILARITY * wordTrigrams.size()) {
+                    continue;
+                }
+                double similarity = (double) common / (wordTrigrams.size() + trigrams(term).size() - common);
+                Map<Long, Double> postings = terms.get(term);
+                if (similarity >= MIN_TRIGRAM_SIMILARITY && postings != null) {
+                    score(scores, candidates, postings, TRIGRAM_MATCH * similarity);
+                }
+            }
+            return scores;
+        }
+
+        private static void score(Map<Long, Double> scores, Map<Long, Double> candidates,
+                                  Map<Long, Double> postings, double matchWeight) {
+            if (candidates != null && candidates.size() < postings.size()) {
+                for (Long productId : candidates.keySet()) {
+                    Double fieldWeight = postings.get(productId);
+                    if (fieldWeight != null) {
+                        scores.merge(productId, matchWeight * fieldWeight, Math::max);
+                    }
+                }
+                return;
+            }
+            for (Map.Entry<Long, Double> posting : postings.entrySet()) {
+                if (candidates == null || candidates.containsKey(posting.getKey())) {
+                    scores.merge(posting.getKey(), matchWeight * posting.getValue(), Math::max);
+                }
+            }
+        }
+    }
+
+    // What a search hit shows, copied from the product when it was indexed
+    private static final class Document {
+        private final Long id;
+        private final String name;
+        private final String category;
+        private final String assetName;
+        private final String purity;
+        private final Double price;
+        private final String imageUrl;
+        private final Set<String> terms;
+
+        private Document(Product product, Set<String> terms) {
+            this.id = product.getId();
+            this.name = product.getName();
+            this.category = product.getCategory();
+            this.assetName = product.getAsset() != null ? product.getAsset().getDisplayName() : null;
+            this.purity = product.getPurity();
+            this.price = product.getFinalPrice();
+            this.imageUrl = product.getImageUrl();
+            this.terms = Set.copyOf(terms);
+        }
+
+        private ProductSearchResult toResult(double score) {
+            return new ProductSearchResult(id, name, category, assetName, purity, price, imageUrl, score);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.knowallrates.goldapi.service;
 
 import com.knowallrates.goldapi.dto.ProductRequest;
+import com.knowallrates.goldapi.event.ProductsChangedEvent;
 import com.knowallrates.goldapi.model.Asset;
 import com.knowallrates.goldapi.model.Product;
 import com.knowallrates.goldapi.repository.AssetRepository;
+import com.knowallrates.goldapi.repository.BulkIngestRepository;
 import com.knowallrates.goldapi.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -19,6 +27,8 @@ import java.util.stream.Collectors;
 @Service
 public class ProductService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -28,6 +38,12 @@ public class ProductService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private BulkIngestRepository bulkIngestRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final String PRODUCT_IMAGE_SUBDIRECTORY = "";
 
     @Transactional
@@ -53,7 +69,7 @@ public class ProductService {
                 String weightStr = request.getWeight().replaceAll("[^\\d.]", "");
                 product.setWeight(Double.parseDouble(weightStr));
             } catch (NumberFormatException e) {
-                System.err.println("Warning: Could not parse weight string '" + request.getWeight() + "'. Setting to null. Error: " + e.getMessage());
+                log.warn("Could not parse weight string '{}'. Setting to null. Error: {}", request.getWeight(), e.getMessage());
                 product.setWeight(null);
             }
         } else {
@@ -80,7 +96,9 @@ public class ProductService {
         }
         product.setAdditionalImages(uploadedAdditionalImagePaths);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductsChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
@@ -107,7 +125,7 @@ public class ProductService {
                 String weightStr = request.getWeight().replaceAll("[^\\d.]", "");
                 existingProduct.setWeight(Double.parseDouble(weightStr));
             } catch (NumberFormatException e) {
-                System.err.println("Warning: Could not parse weight string '" + request.getWeight() + "'. Setting to null. Error: " + e.getMessage());
+                log.warn("Could not parse weight string '{}'. Setting to null. Error: {}", request.getWeight(), e.getMessage());
                 existingProduct.setWeight(null);
             }
         } else {
@@ -161,7 +179,9 @@ public class ProductService {
 
         existingProduct.setAdditionalImages(currentAdditionalImages);
 
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(new ProductsChangedEvent(saved.getId()));
+        return saved;
     }
 
     public List<Product> getAllProducts() {
@@ -172,6 +192,28 @@ public class ProductService {
         return productRepository.findByIsActiveTrue();
     }
 
+    // Keyset page of active products, newest first, filtered by category and/or asset; an unknown
+    // asset gives an empty page
+    @Transactional(readOnly = true)
+    public Window<Product> getCatalogPage(String category, String assetName, int size, ScrollPosition position) {
+        Limit limit = Limit.of(size);
+        String categoryName = category != null && !category.isBlank() ? category.trim() : null;
+        if (assetName != null && !assetName.isBlank()) {
+            Optional<Asset> asset = assetRepository.findByName(assetName.trim());
+            if (asset.isEmpty()) {
+                return Window.from(List.of(), index -> position);
+            }
+            if (categoryName != null) {
+                return productRepository.findByIsActiveTrueAndAssetAndCategoryOrderByCreatedAtDescIdDesc(asset.get(), categoryName, position, limit);
+            }
+            return productRepository.findByIsActiveTrueAndAssetOrderByCreatedAtDescIdDesc(asset.get(), position, limit);
+        }
+        if (categoryName != null) {
+            return productRepository.findByIsActiveTrueAndCategoryOrderByCreatedAtDescIdDesc(categoryName, position, limit);
+        }
+        return productRepository.findByIsActiveTrueOrderByCreatedAtDescIdDesc(position, limit);
+    }
+
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
@@ -194,6 +236,7 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductsChangedEvent(id));
     }
 
     @Transactional
@@ -201,43 +244,47 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setIsActive(isActive);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductsChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void initializeSampleProducts() {
         if (productRepository.count() == 0) {
             List<Asset> assets = assetRepository.findByIsActive(true);
+            List<Product> products = new ArrayList<>();
 
             for (Asset asset : assets) {
                 switch (asset.getName().toLowerCase()) {
                     case "gold":
-                        createSampleGoldProducts(asset);
+                        createSampleGoldProducts(asset, products);
                         break;
                     case "silver":
-                        createSampleSilverProducts(asset);
+                        createSampleSilverProducts(asset, products);
                         break;
                     case "bitcoin":
-                        createSampleBitcoinProducts(asset);
+                        createSampleBitcoinProducts(asset, products);
                         break;
                 }
             }
-            System.out.println("Sample products initialized");
+            bulkIngestRepository.insertProducts(products);
+            eventPublisher.publishEvent(new ProductsChangedEvent(null));
+            log.info("Sample products initialized");
         }
     }
 
-    private void createSampleGoldProducts(Asset asset) {
-        productRepository.save(new Product("22K Gold Ring", "Beautiful 22K gold ring with intricate design", asset, 25000.0, 5.0, "22K", "Ring"));
-        productRepository.save(new Product("24K Gold Necklace", "Elegant 24K gold necklace", asset, 85000.0, 15.0, "24K", "Necklace"));
-        productRepository.save(new Product("Gold Earrings", "Traditional gold earrings", asset, 15000.0, 3.0, "22K", "Earrings"));
+    private void createSampleGoldProducts(Asset asset, List<Product> products) {
+        products.add(new Product("22K Gold Ring", "Beautiful 22K gold ring with intricate design", asset, 25000.0, 5.0, "22K", "Ring"));
+        products.add(new Product("24K Gold Necklace", "Elegant 24K gold necklace", asset, 85000.0, 15.0, "24K", "Necklace"));
+        products.add(new Product("Gold Earrings", "Traditional gold earrings", asset, 15000.0, 3.0, "22K", "Earrings"));
     }
 
-    private void createSampleSilverProducts(Asset asset) {
-        productRepository.save(new Product("Silver Bracelet", "Stylish silver bracelet", asset, 3000.0, 25.0, "925", "Bracelet"));
-        productRepository.save(new Product("Silver Coin", "Pure silver coin", asset, 5000.0, 50.0, "999", "Coin"));
+    private void createSampleSilverProducts(Asset asset, List<Product> products) {
+        products.add(new Product("Silver Bracelet", "Stylish silver bracelet", asset, 3000.0, 25.0, "925", "Bracelet"));
+        products.add(new Product("Silver Coin", "Pure silver coin", asset, 5000.0, 50.0, "999", "Coin"));
     }
 
-    private void createSampleBitcoinProducts(Asset asset) {
-        productRepository.save(new Product("Bitcoin Commemorative Coin", "Physical Bitcoin commemorative coin", asset, 2500.0, 31.1, "Gold Plated", "Coin"));
+    private void createSampleBitcoinProducts(Asset asset, List<Product> products) {
+        products.add(new Product("Bitcoin Commemorative Coin", "Physical Bitcoin commemorative coin", asset, 2500.0, 31.1, "Gold Plated", "Coin"));
     }
 }
-
@@ -0,0 +1,216 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.event.RatesChangedEvent;
+import com.knowallrates.goldapi.model.Asset;
+import com.knowallrates.goldapi.model.AssetRate;
+import com.knowallrates.goldapi.model.GoldPrediction;
+import com.knowallrates.goldapi.model.GoldRate;
+import com.knowallrates.goldapi.repository.AssetRateRepository;
+import com.knowallrates.goldapi.repository.AssetRepository;
+import com.knowallrates.goldapi.repository.BulkIngestRepository;
+import com.knowallrates.goldapi.repository.GoldPredictionRepository;
+import com.knowallrates.goldapi.repository.GoldRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Fills missing daily rates and tomorrow's prediction with generated data so rate GETs stay read-only.
+// Runs once at startup and again just after midnight, writing all gaps in a single transaction.
+@Service
+public class RateBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateBackfillService.class);
+
+    @Autowired
+    private GoldRateRepository goldRateRepository;
+
+    @Autowired
+    private GoldPredictionRepository goldPredictionRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetRateRepository assetRateRepository;
+
+    @Autowired
+    private BulkIngestRepository bulkIngestRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.rates.backfill-days:30}")
+    private int backfillDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.rates.backfill-cron:0 1 0 * * *}")
+    @Transactional
+    public void backfill() {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = today.minusDays(backfillDays - 1);
+
+        List<GoldRate> goldRates = backfillGoldRates(startDate, today);
+        List<AssetRate> assetRates = backfillAssetRates(startDate, today);
+        boolean predictionCreated = backfillPrediction(today);
+
+        if (!goldRates.isEmpty() || !assetRates.isEmpty()) {
+            // Listeners refresh the /today snapshot and series store after commit
+            eventPublisher.publishEvent(new RatesChangedEvent(goldRates, assetRates));
+        }
+
+        log.info("Rate backfill complete: {} gold rates, {} asset rates, prediction {}", goldRates.size(), assetRates.size(), (predictionCreated ? "created" : "present"));
+    }
+
+    private List<GoldRate> backfillGoldRates(LocalDate startDate, LocalDate today) {
+        Set<LocalDate> existing = new HashSet<>(goldRateRepository.findDatesFrom(startDate));
+
+        List<GoldRate> mockRates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(today); date = date.plusDays(1)) {
+            if (!existing.contains(date)) {
+                mockRates.add(createMockRate(date));
+            }
+        }
+
+        bulkIngestRepository.insertGoldRates(mockRates);
+        return mockRates;
+    }
+
+    private List<AssetRate> backfillAssetRates(LocalDate startDate, LocalDate today) {
+        Map<Long, Set<LocalDate>> existing = new HashMap<>();
+        for (Object[] row : assetRateRepository.findAssetIdsAndDatesFrom(startDate)) {
+            existing.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((LocalDate) row[1]);
+        }
+
+        List<AssetRate> mockRates = new ArrayList<>();
+        for (Asset asset : assetRepository.findByIsActive(true)) {
+            Set<LocalDate> dates = existing.getOrDefault(asset.getId(), Set.of());
+            for (LocalDate date = startDate; !date.isAfter(today); date = date.plusDays(1)) {
+                if (!dates.contains(date)) {
+                    mockRates.add(createMockRate(asset, date));
+                }
+            }
+        }
+
+        bulkIngestRepository.insertAssetRates(mockRates);
+        return mockRates;
+    }
+
+    private boolean backfillPrediction(LocalDate today) {
+        LocalDate tomorrow = today.plusDays(1);
+        if (goldPredictionRepository.findByPredictionDate(tomorrow).isPresent()) {
+            return false;
+        }
+        goldPredictionRepository.save(createMockPrediction(tomorrow));
+        return true;
+    }
+
+    private GoldRate createMockRate(LocalDate date) {
+        // Base rates with some realistic variation
+        double base22k = 5800 + (Math.random() * 100); // 5800-5900 range
+        double base24k = 6300 + (Math.random() * 100); // 6300-6400 range
+
+        // Add some date-based variation to make it more realistic
+        long daysSinceEpoch = date.toEpochDay();
+        double variation = Math.sin(daysSinceEpoch * 0.1) * 50;
+
+        return new GoldRate(
+                date,
+                Math.round((base22k + variation) * 100.0) / 100.0,
+                Math.round((base24k + variation) * 100.0) / 100.0
+        );
+    }
+
+    private AssetRate createMockRate(Asset asset, LocalDate date) {
+        switch (asset.getName().toLowerCase()) {
+            case "gold":
+                double base22k = 5800 + (Math.random() * 100);
+                double base24k = 6300 + (Math.random() * 100);
+                long daysSinceEpoch = date.toEpochDay();
+                double variation = Math.sin(daysSinceEpoch * 0.1) * 50;
+                return new AssetRate(
+                    asset, date,
+                    Math.round((base22k + variation) * 100.0) / 100.0,
+                    Math.round((base24k + variation) * 100.0) / 100.0
+                );
+
+            case "silver":
+                double silverBase = 70 + (Math.random() * 10); // 70-80 per gram
+                double silverVariation = Math.sin(date.toEpochDay() * 0.15) * 5;
+                return new AssetRate(
+                    asset, date,
+                    Math.round((silverBase + silverVariation) * 100.0) / 100.0,
+                    "gram"
+                );
+
+            case "bitcoin":
+                double btcBase = 4000000 + (Math.random() * 1000000); // 40-50 lakh range
+                double btcVariation = Math.sin(date.toEpochDay() * 0.2) * 500000;
+                return new AssetRate(
+                    asset, date,
+                    Math.round((btcBase + btcVariation) * 100.0) / 100.0,
+                    "coin"
+                );
+
+            default:
+                return new AssetRate(
+                    asset, date,
+                    100.0 + (Math.random() * 50),
+                    "unit"
+                );
+        }
+    }
+
+    private GoldPrediction createMockPrediction(LocalDate date) {
+        // Get today's rate for prediction base
+        LocalDate today = LocalDate.now();
+        Optional<GoldRate> todayRateOpt = goldRateRepository.findByDate(today);
+
+        double predicted22k = 5850;
+        double predicted24k = 6380;
+
+        if (todayRateOpt.isPresent()) {
+            GoldRate todayRate = todayRateOpt.get();
+            // Predict slight increase/decrease based on random market conditions
+            double change = (Math.random() - 0.5) * 100; // -50 to +50 change
+            predicted22k = todayRate.getGold22k() + change;
+            predicted24k = todayRate.getGold24k() + change;
+        }
+
+        // Determine trend
+        GoldPrediction.Trend trend;
+        if (Math.random() > 0.6) {
+            trend = GoldPrediction.Trend.UP;
+        } else if (Math.random() > 0.3) {
+            trend = GoldPrediction.Trend.DOWN;
+        } else {
+            trend = GoldPrediction.Trend.STABLE;
+        }
+
+        // Random confidence between 70-95%
+        int confidence = 70 + (int) (Math.random() * 25);
+
+        return new GoldPrediction(
+                date,
+                Math.round(predicted22k * 100.0) / 100.0,
+                Math.round(predicted24k * 100.0) / 100.0,
+                confidence,
+                trend
+        );
+    }
+}
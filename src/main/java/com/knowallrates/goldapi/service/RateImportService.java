@@ -0,0 +1,298 @@
+package com.knowallrates.goldapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.knowallrates.goldapi.dto.RateImportResponse;
+import com.knowallrates.goldapi.dto.RateImportRow;
+import com.knowallrates.goldapi.event.RatesChangedEvent;
+import com.knowallrates.goldapi.model.Asset;
+import com.knowallrates.goldapi.model.AssetRate;
+import com.knowallrates.goldapi.model.GoldRate;
+import com.knowallrates.goldapi.repository.AssetRepository;
+import com.knowallrates.goldapi.repository.BulkIngestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Streams a CSV or NDJSON upload line by line and upserts rates in chunks, one transaction per chunk.
+// A bad row is reported and skipped; a chunk that fails in the database is rolled back and reported as a whole.
+@Service
+public class RateImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum Format { CSV, NDJSON }
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private BulkIngestRepository bulkIngestRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public static Format detectFormat(String format, String filename, String contentType) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported import format: " + format);
+            }
+        }
+        String name = filename != null ? filename.toLowerCase() : "";
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                || (contentType != null && contentType.contains("ndjson"))) {
+            return Format.NDJSON;
+        }
+        return Format.CSV;
+    }
+
+    public RateImportResponse importRates(InputStream input, Format format) throws IOException {
+        long started = System.nanoTime();
+        RateImportResponse response = new RateImportResponse();
+
+        Map<String, Asset> assets = new HashMap<>();
+        for (Asset asset : assetRepository.findAll()) {
+            assets.put(asset.getName().toLowerCase(), asset);
+        }
+
+        ObjectReader jsonReader = objectMapper.readerFor(RateImportRow.class);
+        Map<String, Integer> csvColumns = null;
+        ImportChunk chunk = new ImportChunk();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+
+                response.setTotalRows(response.getTotalRows() + 1);
+                try {
+                    RateImportRow row = format == Format.CSV
+                            ? parseCsvRow(csvColumns, line)
+                            : jsonReader.readValue(line);
+                    chunk.add(lineNo, row, assets);
+                } catch (JsonProcessingException e) {
+                    response.setFailedRows(response.getFailedRows() + 1);
+                    addError(response, lineNo, "Invalid JSON: " + e.getOriginalMessage());
+                } catch (RuntimeException e) {
+                    response.setFailedRows(response.getFailedRows() + 1);
+                    addError(response, lineNo, e.getMessage());
+                }
+
+                if (chunk.rows >= CHUNK_SIZE) {
+                    flush(chunk, response);
+                    chunk = new ImportChunk();
+                }
+            }
+        }
+        flush(chunk, response);
+
+        long elapsedNanos = System.nanoTime() - started;
+        response.setDurationMs(elapsedNanos / 1_000_000);
+        response.setRowsPerSecond(elapsedNanos > 0
+                ? Math.round(response.getImportedRows() * 1e9 / elapsedNanos * 100.0) / 100.0
+                : 0);
+        return response;
+    }
+
+    private void flush(ImportChunk chunk, RateImportResponse response) {
+        if (chunk.rows == 0) {
+            return;
+        }
+        List<GoldRate> goldRates = new ArrayList<>(chunk.goldRates.values());
+        List<AssetRate> assetRates = new ArrayList<>(chunk.assetRates.values());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bulkIngestRepository.upsertGoldRates(goldRates);
+                bulkIngestRepository.upsertAssetRates(assetRates);
+                // Listeners refresh the /today snapshot and series store after this chunk commits
+                eventPublisher.publishEvent(new RatesChangedEvent(goldRates, assetRates));
+            });
+            response.setImportedRows(response.getImportedRows() + chunk.rows);
+        } catch (RuntimeException e) {
+            response.setFailedRows(response.getFailedRows() + chunk.rows);
+            addError(response, chunk.firstLine, "Lines " + chunk.firstLine + "-" + chunk.lastLine
+                    + " rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    private static void addError(RateImportResponse response, long line, String message) {
+        if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+            response.getErrors().add(new RateImportResponse.RowError(line, message));
+        } else {
+            response.setErrorsTruncated(true);
+        }
+    }
+
+    // Maps header names to column positions; accepts assetName/asset, rate22k/gold22k, rate24k/gold24k
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).toLowerCase().replaceAll("[^a-z0-9]", "");
+            switch (name) {
+                case "asset", "assetname" -> columns.put("assetName", i);
+                case "date" -> columns.put("date", i);
+                case "rate22k", "gold22k" -> columns.put("rate22k", i);
+                case "rate24k", "gold24k" -> columns.put("rate24k", i);
+                case "rateperunit" -> columns.put("ratePerUnit", i);
+                case "unit" -> columns.put("unit", i);
+                default -> { }
+            }
+        }
+        if (!columns.containsKey("assetName") || !columns.containsKey("date")) {
+            throw new RuntimeException("CSV header must contain assetName and date columns");
+        }
+        return columns;
+    }
+
+    private static RateImportRow parseCsvRow(Map<String, Integer> columns, String line) {
+        List<String> values = splitCsv(line);
+        RateImportRow row = new RateImportRow();
+        row.setAssetName(column(values, columns, "assetName"));
+        row.setDate(column(values, columns, "date"));
+        row.setRate22k(number(column(values, columns, "rate22k"), "rate22k"));
+        row.setRate24k(number(column(values, columns, "rate24k"), "rate24k"));
+        row.setRatePerUnit(number(column(values, columns, "ratePerUnit"), "ratePerUnit"));
+        row.setUnit(column(values, columns, "unit"));
+        return row;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Double number(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid " + field + ": " + value);
+        }
+    }
+
+    // Comma-separated values with optional double quotes ("" inside quotes is a literal quote)
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    // Validated rows of one chunk; a later row for the same asset and date replaces an earlier one
+    private static final class ImportChunk {
+        private final Map<LocalDate, GoldRate> goldRates = new LinkedHashMap<>();
+        private final Map<String, AssetRate> assetRates = new LinkedHashMap<>();
+        private int rows;
+        private long firstLine;
+        private long lastLine;
+
+        void add(long lineNo, RateImportRow row, Map<String, Asset> assets) {
+            if (row.getAssetName() == null || row.getAssetName().isBlank()) {
+                throw new RuntimeException("assetName is required");
+            }
+            Asset asset = assets.get(row.getAssetName().trim().toLowerCase());
+            if (asset == null) {
+                throw new RuntimeException("Asset not found: " + row.getAssetName());
+            }
+
+            LocalDate date;
+            try {
+                date = LocalDate.parse(row.getDate() != null ? row.getDate().trim() : "");
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid date: " + row.getDate());
+            }
+            if (date.isAfter(LocalDate.now())) {
+                throw new RuntimeException("Date is in the future: " + date);
+            }
+
+            String key = asset.getId() + ":" + date;
+            if (asset.getName().equals("gold")) {
+                requirePositive(row.getRate22k(), "rate22k");
+                requirePositive(row.getRate24k(), "rate24k");
+                // Gold is kept both in gold_rates (used by /api/rate) and in asset_rates
+                goldRates.put(date, new GoldRate(date, row.getRate22k(), row.getRate24k()));
+                assetRates.put(key, new AssetRate(asset, date, row.getRate22k(), row.getRate24k()));
+            } else {
+                requirePositive(row.getRatePerUnit(), "ratePerUnit");
+                String unit = row.getUnit() != null && !row.getUnit().isBlank() ? row.getUnit().trim() : "unit";
+                assetRates.put(key, new AssetRate(asset, date, row.getRatePerUnit(), unit));
+            }
+
+            if (rows == 0) {
+                firstLine = lineNo;
+            }
+            lastLine = lineNo;
+            rows++;
+        }
+
+        private static void requirePositive(Double value, String field) {
+            if (value == null) {
+                throw new RuntimeException(field + " is required");
+            }
+            if (value <= 0) {
+                throw new RuntimeException(field + " must be positive");
+            }
+        }
+    }
+}
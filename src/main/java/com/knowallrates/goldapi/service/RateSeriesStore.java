@@ -0,0 +1,271 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.event.RatesChangedEvent;
+import com.knowallrates.goldapi.model.AssetRate;
+import com.knowallrates.goldapi.model.GoldRate;
+import com.knowallrates.goldapi.repository.AssetRateRepository;
+import com.knowallrates.goldapi.repository.GoldRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-process daily rate series per asset, kept as sorted primitive arrays. Loaded once from
+// gold_rates/asset_rates and merged on writes, so history reads are array slices, not entity queries.
+@Service
+public class RateSeriesStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RateSeriesStore.class);
+
+    @Autowired
+    private GoldRateRepository goldRateRepository;
+
+    @Autowired
+    private AssetRateRepository assetRateRepository;
+
+    private volatile Series goldRates = Series.EMPTY;
+    private final Map<String, Series> assetRates = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // Not synchronized: load() runs JDBC under this lock, which would pin a virtual thread's carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        writeLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+
+            SeriesBuilder gold = new SeriesBuilder();
+            for (Object[] row : goldRateRepository.findAllSeriesPoints()) {
+                gold.add((LocalDate) row[0], (Double) row[1], (Double) row[2], (LocalDateTime) row[3]);
+            }
+            goldRates = gold.build();
+
+            Map<String, SeriesBuilder> builders = new HashMap<>();
+            for (Object[] row : assetRateRepository.findAllSeriesPoints()) {
+                String assetName = (String) row[0];
+                boolean gold22k24k = "gold".equals(assetName);
+                builders.computeIfAbsent(assetName, name -> new SeriesBuilder())
+                        .add((LocalDate) row[1],
+                                (Double) (gold22k24k ? row[2] : row[4]),
+                                gold22k24k ? (Double) row[3] : null,
+                                (LocalDateTime) row[5]);
+            }
+            builders.forEach((name, builder) -> assetRates.put(name, builder.build()));
+
+            loaded = true;
+            log.info("Rate series store loaded: {} gold rates, {} asset series", goldRates.size(), assetRates.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Series goldRates() {
+        ensureLoaded();
+        return goldRates;
+    }
+
+    public Series assetRates(String assetName) {
+        ensureLoaded();
+        return assetRates.getOrDefault(assetName, Series.EMPTY);
+    }
+
+    public void putGoldRates(Collection<GoldRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        ensureLoaded();
+        SeriesBuilder batch = new SeriesBuilder();
+        for (GoldRate rate : rates) {
+            batch.add(rate.getDate(), rate.getGold22k(), rate.getGold24k(), rate.getUpdatedAt());
+        }
+        writeLock.lock();
+        try {
+            goldRates = goldRates.merge(batch.build());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void putAssetRates(String assetName, Collection<AssetRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        ensureLoaded();
+        boolean gold22k24k = "gold".equals(assetName);
+        SeriesBuilder batch = new SeriesBuilder();
+        for (AssetRate rate : rates) {
+            batch.add(rate.getDate(),
+                    gold22k24k ? rate.getRate22k() : rate.getRatePerUnit(),
+                    gold22k24k ? rate.getRate24k() : null,
+                    rate.getUpdatedAt());
+        }
+        writeLock.lock();
+        try {
+            assetRates.put(assetName, assetRates.getOrDefault(assetName, Series.EMPTY).merge(batch.build()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesChanged(RatesChangedEvent event) {
+        putGoldRates(event.getGoldRates());
+
+        Map<String, List<AssetRate>> byAsset = new HashMap<>();
+        for (AssetRate rate : event.getAssetRates()) {
+            byAsset.computeIfAbsent(rate.getAsset().getName(), name -> new ArrayList<>()).add(rate);
+        }
+        byAsset.forEach(this::putAssetRates);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    // Immutable series: epoch days ascending, primary value (22K or per-unit rate) and
+    // optional secondary value (24K); absent values are stored as NaN. Replaced copy-on-write.
+    // version is the newest updated_at seen (epoch millis), used for HTTP ETags.
+    public static final class Series {
+        static final Series EMPTY = new Series(new long[0], new double[0], new double[0], 0L);
+
+        private final long[] epochDays;
+        private final double[] primary;
+        private final double[] secondary;
+        private final String[] isoDates;
+        private final long version;
+
+        private Series(long[] epochDays, double[] primary, double[] secondary, long version) {
+            this.epochDays = epochDays;
+            this.primary = primary;
+            this.secondary = secondary;
+            this.version = version;
+            this.isoDates = new String[epochDays.length];
+            for (int i = 0; i < epochDays.length; i++) {
+                isoDates[i] = LocalDate.ofEpochDay(epochDays[i]).toString();
+            }
+        }
+
+        public int size() { return epochDays.length; }
+        public long version() { return version; }
+
+        // Index of the first point on or after the given day
+        public int ceilingIndex(long epochDay) {
+            int i = Arrays.binarySearch(epochDays, epochDay);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        public boolean contains(long epochDay) {
+            return Arrays.binarySearch(epochDays, epochDay) >= 0;
+        }
+
+        // Days in [fromDay, toDay] with no point, found with a single linear walk
+        public List<LocalDate> missingDays(long fromDay, long toDay) {
+            List<LocalDate> missing = new ArrayList<>();
+            int i = ceilingIndex(fromDay);
+            for (long day = fromDay; day <= toDay; day++) {
+                if (i < epochDays.length && epochDays[i] == day) {
+                    i++;
+                } else {
+                    missing.add(LocalDate.ofEpochDay(day));
+                }
+            }
+            return missing;
+        }
+
+        public long epochDay(int i) { return epochDays[i]; }
+        public String isoDate(int i) { return isoDates[i]; }
+        public Double primary(int i) { return Double.isNaN(primary[i]) ? null : primary[i]; }
+        public Double secondary(int i) { return Double.isNaN(secondary[i]) ? null : secondary[i]; }
+
+        // Merge two sorted series; points in the update replace points on the same day
+        Series merge(Series update) {
+            if (update.size() == 0) {
+                return this;
+            }
+            int n = epochDays.length, m = update.epochDays.length;
+            long[] days = new long[n + m];
+            double[] p = new double[n + m];
+            double[] s = new double[n + m];
+            int i = 0, j = 0, k = 0;
+            while (i < n || j < m) {
+                if (j >= m || (i < n && epochDays[i] < update.epochDays[j])) {
+                    days[k] = epochDays[i]; p[k] = primary[i]; s[k] = secondary[i]; i++;
+                } else {
+                    if (i < n && epochDays[i] == update.epochDays[j]) {
+                        i++;
+                    }
+                    days[k] = update.epochDays[j]; p[k] = update.primary[j]; s[k] = update.secondary[j]; j++;
+                }
+                k++;
+            }
+            return new Series(Arrays.copyOf(days, k), Arrays.copyOf(p, k), Arrays.copyOf(s, k),
+                    Math.max(version, update.version));
+        }
+    }
+
+    // Collects points in any order; build() sorts by day and keeps the last value seen for a day
+    private static final class SeriesBuilder {
+        private long[] days = new long[16];
+        private double[] primary = new double[16];
+        private double[] secondary = new double[16];
+        private int size;
+        private long version;
+
+        void add(LocalDate date, Double primaryValue, Double secondaryValue, LocalDateTime updatedAt) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                primary = Arrays.copyOf(primary, size * 2);
+                secondary = Arrays.copyOf(secondary, size * 2);
+            }
+            days[size] = date.toEpochDay();
+            primary[size] = primaryValue != null ? primaryValue : Double.NaN;
+            secondary[size] = secondaryValue != null ? secondaryValue : Double.NaN;
+            size++;
+            // Rows written without a timestamp still have to move the version forward
+            LocalDateTime stamp = updatedAt != null ? updatedAt : LocalDateTime.now();
+            version = Math.max(version, stamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        Series build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // Stable sort keeps insertion order for equal days, so the last write wins below
+            Arrays.sort(order, (a, b) -> Long.compare(days[a], days[b]));
+
+            long[] d = new long[size];
+            double[] p = new double[size];
+            double[] s = new double[size];
+            int k = 0;
+            for (int idx : order) {
+                if (k > 0 && d[k - 1] == days[idx]) {
+                    k--;
+                }
+                d[k] = days[idx]; p[k] = primary[idx]; s[k] = secondary[idx];
+                k++;
+            }
+            return new Series(Arrays.copyOf(d, k), Arrays.copyOf(p, k), Arrays.copyOf(s, k), version);
+        }
+    }
+}
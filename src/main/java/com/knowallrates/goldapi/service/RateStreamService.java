@@ -0,0 +1,338 @@
+package com.knowallrates.goldapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowallrates.goldapi.dto.RateDelta;
+import com.knowallrates.goldapi.dto.TodayRateResponse;
+import com.knowallrates.goldapi.event.RatesChangedEvent;
+import com.knowallrates.goldapi.model.AssetRate;
+import com.knowallrates.goldapi.model.GoldRate;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fans committed rate changes out to SSE subscribers. Each change is serialized once and the same
+// frame is queued for every subscriber; each subscriber has a small bounded queue (oldest frame dropped
+// when full) drained by a shared sender pool, so one slow client never blocks the publisher. A send still
+// blocks its sender thread while the client's socket is full, so a subscriber whose send takes longer than
+// send-timeout-ms is evicted and the pool gets a replacement thread until that send finally fails (at the
+// container's write timeout); stalled clients therefore cannot starve the others of senders.
+@Service
+public class RateStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateStreamService.class);
+
+    private static final int SUBSCRIBER_QUEUE_CAPACITY = 16;
+    private static final int IDLE = 0;
+    private static final int SENDING = 1;
+    private static final int STALLED = 2;
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+            SseEmitter.event().comment("heartbeat").build();
+
+    @Autowired
+    private GoldRateService goldRateService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rates.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${app.rates.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.rates.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+    private final AtomicInteger senderThreadCount = new AtomicInteger();
+    private final int baseSenders = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(baseSenders, baseSenders,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "rate-stream-" + senderThreadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Sender threads stuck in a send to an evicted subscriber, each replaced by an extra pool thread
+    private int stalledSenders;
+    private final ReentrantLock senderPoolLock = new ReentrantLock();
+
+    public SseEmitter subscribe() {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many rate stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Current state first, so a client never has to poll /today after connecting. It is queued before
+        // the subscriber joins the fan-out, so no delta can overtake it; if a change landed in between,
+        // the snapshot is newer by then and goes out again.
+        TodayRateResponse snapshot = queueSnapshot(subscriber, null);
+        subscribers.add(subscriber);
+        if (snapshot != null) {
+            queueSnapshot(subscriber, snapshot);
+        }
+        return emitter;
+    }
+
+    // Queues the current snapshot unless it is the one already sent; returns what was current
+    private TodayRateResponse queueSnapshot(Subscriber subscriber, TodayRateResponse alreadySent) {
+        try {
+            // In-memory read; no transaction or connection once the snapshot is warm
+            TodayRateResponse snapshot = goldRateService.getTodayRates();
+            if (snapshot != alreadySent) {
+                subscriber.offer(frame("snapshot", snapshot));
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            log.warn("Rate stream snapshot unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    public long getEvictedSubscribers() {
+        return evictedSubscribers.get();
+    }
+
+    // Runs after GoldRateService has refreshed the snapshot, so a subscriber joining meanwhile gets the
+    // new snapshot instead of missing this delta
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesChanged(RatesChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        RateDelta delta = toDelta(event);
+        if (delta.getRates().isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = frame("rates", delta);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${app.rates.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    // A send stuck past send-timeout-ms means the client stopped reading; drop it from the fan-out and
+    // let the pool replace the blocked thread. Checked every send-timeout-ms, so eviction takes 1-2x that.
+    @Scheduled(fixedDelayString = "${app.rates.stream.send-timeout-ms:10000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sendState.get() == SENDING
+                    && now - subscriber.sendStartedAt > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)
+                    && subscriber.sendState.compareAndSet(SENDING, STALLED)) {
+                subscriber.close();
+                evictedSubscribers.incrementAndGet();
+                resizeSenders(1);
+                log.warn("Evicted rate stream subscriber stuck in a send for over {} ms", sendTimeoutMs);
+            }
+        }
+    }
+
+    private void resizeSenders(int stalledDelta) {
+        senderPoolLock.lock();
+        try {
+            stalledSenders += stalledDelta;
+            int size = baseSenders + stalledSenders;
+            // Core may never exceed max, so grow max first and shrink it last
+            if (size > senders.getMaximumPoolSize()) {
+                senders.setMaximumPoolSize(size);
+                senders.setCorePoolSize(size);
+            } else {
+                senders.setCorePoolSize(size);
+                senders.setMaximumPoolSize(size);
+            }
+        } finally {
+            senderPoolLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    // Today's point per asset; gold_rates rows win over the gold asset_rates row. Imports and backfills
+    // also write past dates, which are history rather than live rates and are not pushed.
+    private RateDelta toDelta(RatesChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        Map<String, RateDelta.Entry> latest = new LinkedHashMap<>();
+        for (GoldRate rate : event.getGoldRates()) {
+            if (!today.equals(rate.getDate())) {
+                continue;
+            }
+            putIfNewer(latest, new RateDelta.Entry("gold", rate.getDate().toString(),
+                    rate.getGold22k(), rate.getGold24k(), null, null), false);
+        }
+        for (AssetRate rate : event.getAssetRates()) {
+            if (!today.equals(rate.getDate())) {
+                continue;
+            }
+            putIfNewer(latest, new RateDelta.Entry(rate.getAsset().getName(), rate.getDate().toString(),
+                    rate.getRate22k(), rate.getRate24k(), rate.getRatePerUnit(), rate.getUnit()), true);
+        }
+        return new RateDelta(new ArrayList<>(latest.values()));
+    }
+
+    private static void putIfNewer(Map<String, RateDelta.Entry> latest, RateDelta.Entry entry, boolean keepOnTie) {
+        RateDelta.Entry current = latest.get(entry.getAssetName());
+        int order = current == null ? 1 : entry.getDate().compareTo(current.getDate());
+        if (order > 0 || (order == 0 && !keepOnTie)) {
+            latest.put(entry.getAssetName(), entry);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(String name, Object payload) {
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            return SseEmitter.event()
+                    .id(Long.toString(eventSequence.incrementAndGet()))
+                    .name(name)
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize rate stream event", e);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // IDLE, SENDING, or STALLED once evicted mid-send; whoever leaves STALLED gives back the extra thread
+        private final AtomicInteger sendState = new AtomicInteger(IDLE);
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            synchronized (queue) {
+                if (queue.size() == SUBSCRIBER_QUEUE_CAPACITY) {
+                    queue.pollFirst();
+                    droppedFrames.incrementAndGet();
+                }
+                queue.addLast(frame);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed.get() && (frame = poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    sendState.set(SENDING);
+                    try {
+                        emitter.send(frame);
+                    } finally {
+                        if (sendState.getAndSet(IDLE) == STALLED) {
+                            // Evicted meanwhile; the replacement thread is no longer needed
+                            resizeSenders(-1);
+                        }
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; Spring completes the emitter and onError/onCompletion clean up
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && hasQueued()) {
+                scheduleDrain();
+            }
+        }
+
+        private Set<ResponseBodyEmitter.DataWithMediaType> poll() {
+            synchronized (queue) {
+                return queue.pollFirst();
+            }
+        }
+
+        private boolean hasQueued() {
+            synchronized (queue) {
+                return !queue.isEmpty();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+                synchronized (queue) {
+                    queue.clear();
+                }
+            }
+        }
+    }
+}
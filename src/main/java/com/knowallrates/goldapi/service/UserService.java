@@ -6,6 +6,7 @@ import com.knowallrates.goldapi.dto.SignUpRequest;
 import com.knowallrates.goldapi.dto.UpdateProfileRequest;
 import com.knowallrates.goldapi.model.User;
 import com.knowallrates.goldapi.repository.UserRepository;
+import com.knowallrates.goldapi.security.AuthenticatedUserResolver;
 import com.knowallrates.goldapi.security.JwtUtil;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -18,14 +19,17 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     // Constructor injection to avoid circular dependency
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       JwtUtil jwtUtil) {
+                       JwtUtil jwtUtil,
+                       AuthenticatedUserResolver authenticatedUserResolver) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.authenticatedUserResolver = authenticatedUserResolver;
     }
 
     public AuthResponse signUp(SignUpRequest request) {
@@ -47,7 +51,7 @@ public class UserService {
         user = userRepository.save(user);
 
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().toString());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().toString());
 
         return new AuthResponse(token, user);
     }
@@ -66,7 +70,7 @@ public class UserService {
         }
 
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().toString());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().toString());
 
         return new AuthResponse(token, user);
     }
@@ -113,8 +117,9 @@ public class UserService {
         }
     }
 
+    // Resolves the authenticated user; within a request this is the shared, usually unloaded, reference
     public User findByEmail(String email) {
-        Optional<User> userOpt = userRepository.findByEmailAndIsActive(email, true);
+        Optional<User> userOpt = authenticatedUserResolver.resolve(email);
 
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found with email: " + email);
@@ -0,0 +1,642 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Render-only comparison of the precompiled emails against the String.format versions they replaced,
+// whose inline HTML is copied verbatim below so transcription errors in the template files show up as a
+// mismatch. No mail is sent; only rendering of the order confirmation is measured.
+class EmailTemplateBenchmarkTest {
+
+    private static final int WARMUP = 3_000;
+    private static final int ITERATIONS = 5_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 9, 26);
+
+    // From EmailService.buildOrderConfirmationTemplate before templates/email/ existed
+    private static final String LEGACY_ITEM_FORMAT = """
+                <tr>
+                    <td style="padding: 12px; border-bottom: 1px solid #e5e7eb;">
+                        <div style="font-weight: 600; color: #1f2937; margin-bottom: 4px;">%s</div>
+                        <div style="font-size: 14px; color: #6b7280;">Quantity: %d</div>
+                    </td>
+                    <td style="padding: 12px; border-bottom: 1px solid #e5e7eb; text-align: right;">
+                        <div style="font-weight: 600; color: #1f2937;">₹%.2f</div>
+                        <div style="font-size: 14px; color: #6b7280;">₹%.2f each</div>
+                    </td>
+                </tr>
+                """;
+
+    private static final String LEGACY_ORDER_FORMAT = """
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Order Confirmation - KnowAllRates</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body { 
+                        font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; 
+                        line-height: 1.6; 
+                        color: #333; 
+                        background-color: #f8fafc;
+                    }
+                    .container { 
+                        max-width: 600px; 
+                        margin: 40px auto; 
+                        background: white; 
+                        border-radius: 12px; 
+                        overflow: hidden; 
+                        box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);
+                    }
+                    .header { 
+                        background: linear-gradient(135deg, #10b981, #059669); 
+                        color: white; 
+                        padding: 40px 30px; 
+                        text-align: center; 
+                    }
+                    .header h1 { font-size: 28px; margin-bottom: 8px; font-weight: 700; }
+                    .header p { font-size: 16px; opacity: 0.9; }
+                    .content { padding: 40px 30px; }
+                    .greeting { font-size: 18px; font-weight: 600; margin-bottom: 20px; color: #1f2937; }
+                    .message { font-size: 16px; margin-bottom: 20px; color: #4b5563; }
+                    .order-summary { 
+                        background: #f9fafb; 
+                        border: 1px solid #e5e7eb; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                    }
+                    .order-summary h3 { color: #1f2937; margin-bottom: 16px; }
+                    .order-info { display: grid; grid-template-columns: 1fr 1fr; gap: 16px; margin-bottom: 20px; }
+                    .order-info div { font-size: 14px; }
+                    .order-info strong { color: #1f2937; }
+                    .items-table { width: 100%%; border-collapse: collapse; margin: 20px 0; }
+                    .items-table th { 
+                        background: #f3f4f6; 
+                        padding: 12px; 
+                        text-align: left; 
+                        font-weight: 600; 
+                        color: #1f2937; 
+                        border-bottom: 2px solid #e5e7eb;
+                    }
+                    .totals { 
+                        border-top: 2px solid #e5e7eb; 
+                        padding-top: 16px; 
+                        margin-top: 16px; 
+                    }
+                    .totals div { 
+                        display: flex; 
+                        justify-content: space-between; 
+                        margin-bottom: 8px; 
+                        font-size: 14px; 
+                    }
+                    .totals .total { 
+                        font-weight: 700; 
+                        font-size: 18px; 
+                        color: #1f2937; 
+                        border-top: 1px solid #e5e7eb; 
+                        padding-top: 8px; 
+                        margin-top: 8px; 
+                    }
+                    .button-container { text-align: center; margin: 40px 0; }
+                    .button { 
+                        display: inline-block; 
+                        background: linear-gradient(135deg, #f59e0b, #d97706); 
+                        color: white; 
+                        padding: 16px 32px; 
+                        text-decoration: none; 
+                        border-radius: 8px; 
+                        font-weight: 600; 
+                        font-size: 16px;
+                        transition: transform 0.2s;
+                    }
+                    .button:hover { transform: translateY(-2px); }
+                    .shipping-info { 
+                        background: #eff6ff; 
+                        border: 1px solid #3b82f6; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                    }
+                    .shipping-info h4 { color: #1e40af; margin-bottom: 8px; }
+                    .shipping-info p { color: #1e40af; font-size: 14px; line-height: 1.5; }
+                    .footer { 
+                        background: #f9fafb; 
+                        padding: 30px; 
+                        text-align: center; 
+                        border-top: 1px solid #e5e7eb; 
+                    }
+                    .footer p { font-size: 14px; color: #6b7280; margin: 4px 0; }
+                    @media (max-width: 600px) {
+                        .container { margin: 20px; }
+                        .header, .content { padding: 30px 20px; }
+                        .order-info { grid-template-columns: 1fr; }
+                    }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">
+                        <h1>🛍️ Order Confirmed!</h1>
+                        <p>KnowAllRates - Gold Rate Tracker</p>
+                    </div>
+                    <div class="content">
+                        <div class="greeting">Hello %s,</div>
+                        
+                        <div class="message">
+                            Thank you for your order! We're excited to confirm that your order has been successfully placed on %s.
+                        </div>
+                        
+                        <div class="order-summary">
+                            <h3>📋 Order Summary</h3>
+                            <div class="order-info">
+                                <div><strong>Order ID:</strong> %s</div>
+                                <div><strong>Order Date:</strong> %s</div>
+                                <div><strong>Payment Method:</strong> %s</div>
+                                <div><strong>Status:</strong> %s</div>
+                            </div>
+                            
+                            <table class="items-table">
+                                <thead>
+                                    <tr>
+                                        <th>Item Details</th>
+                                        <th style="text-align: right;">Price</th>
+                                    </tr>
+                                </thead>
+                                <tbody>
+                                    %s
+                                </tbody>
+                            </table>
+                            
+                            <div class="totals">
+                                <div><span>Subtotal:</span><span>₹%.2f</span></div>
+                                %s
+                                <div><span>Tax (18%% GST):</span><span>₹%.2f</span></div>
+                                <div><span>Shipping:</span><span>%s</span></div>
+                                <div class="total"><span>Total Amount:</span><span>₹%.2f</span></div>
+                            </div>
+                        </div>
+                        
+                        <div class="shipping-info">
+                            <h4>📦 Shipping Information</h4>
+                            <p><strong>Delivery Address:</strong><br>%s</p>
+                            <p style="margin-top: 12px;">
+                                <strong>Estimated Delivery:</strong> 3-5 business days<br>
+                                You will receive tracking information once your order is shipped.
+                            </p>
+                        </div>
+                        
+                        <div class="button-container">
+                            <a href="%s" class="button">Track Your Order</a>
+                        </div>
+                        
+                        <div class="message">
+                            If you have any questions about your order, please don't hesitate to contact our customer support team at support@knowallrates.com.
+                        </div>
+                    </div>
+                    <div class="footer">
+                        <p><strong>© 2024 KnowAllRates. All rights reserved.</strong></p>
+                        <p>This is an automated email. Please do not reply to this message.</p>
+                        <p>Need help? Contact our support team at support@knowallrates.com</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """;
+
+    // From EmailService.buildPasswordResetEmailTemplate before templates/email/ existed
+    private static final String LEGACY_PASSWORD_RESET_FORMAT = """
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Reset Your Password - KnowAllRates</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body { 
+                        font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; 
+                        line-height: 1.6; 
+                        color: #333; 
+                        background-color: #f8fafc;
+                    }
+                    .container { 
+                        max-width: 600px; 
+                        margin: 40px auto; 
+                        background: white; 
+                        border-radius: 12px; 
+                        overflow: hidden; 
+                        box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);
+                    }
+                    .header { 
+                        background: linear-gradient(135deg, #f59e0b, #d97706); 
+                        color: white; 
+                        padding: 40px 30px; 
+                        text-align: center; 
+                    }
+                    .header h1 { font-size: 28px; margin-bottom: 8px; font-weight: 700; }
+                    .header p { font-size: 16px; opacity: 0.9; }
+                    .content { padding: 40px 30px; }
+                    .greeting { font-size: 18px; font-weight: 600; margin-bottom: 20px; color: #1f2937; }
+                    .message { font-size: 16px; margin-bottom: 30px; color: #4b5563; }
+                    .button-container { text-align: center; margin: 40px 0; }
+                    .button { 
+                        display: inline-block; 
+                        background: linear-gradient(135deg, #f59e0b, #d97706); 
+                        color: white; 
+                        padding: 16px 32px; 
+                        text-decoration: none; 
+                        border-radius: 8px; 
+                        font-weight: 600; 
+                        font-size: 16px;
+                        transition: transform 0.2s;
+                    }
+                    .button:hover { transform: translateY(-2px); }
+                    .warning { 
+                        background: #fef3c7; 
+                        border: 1px solid #f59e0b; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                    }
+                    .warning-title { font-weight: 600; color: #92400e; margin-bottom: 8px; }
+                    .warning-list { color: #92400e; font-size: 14px; }
+                    .warning-list li { margin: 4px 0; }
+                    .backup-link { 
+                        background: #f3f4f6; 
+                        border: 1px solid #d1d5db; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                        word-break: break-all;
+                        font-family: 'Monaco', 'Menlo', 'Ubuntu Mono', monospace;
+                        font-size: 14px;
+                    }
+                    .footer { 
+                        background: #f9fafb; 
+                        padding: 30px; 
+                        text-align: center; 
+                        border-top: 1px solid #e5e7eb; 
+                    }
+                    .footer p { font-size: 14px; color: #6b7280; margin: 4px 0; }
+                    .security-note { 
+                        background: #eff6ff; 
+                        border: 1px solid #3b82f6; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                    }
+                    .security-note-title { font-weight: 600; color: #1e40af; margin-bottom: 8px; }
+                    .security-note p { color: #1e40af; font-size: 14px; }
+                    @media (max-width: 600px) {
+                        .container { margin: 20px; }
+                        .header, .content { padding: 30px 20px; }
+                    }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">
+                        <h1>🔐 Password Reset Request</h1>
+                        <p>KnowAllRates - Gold Rate Tracker</p>
+                    </div>
+                    <div class="content">
+                        <div class="greeting">Hello %s,</div>
+                        
+                        <div class="message">
+                            We received a request to reset your password for your KnowAllRates account on %s.
+                        </div>
+                        
+                        <div class="message">
+                            Click the button below to create a new password:
+                        </div>
+                        
+                        <div class="button-container">
+                            <a href="%s" class="button">Reset My Password</a>
+                        </div>
+                        
+                        <div class="warning">
+                            <div class="warning-title">⚠️ Important Security Information</div>
+                            <ul class="warning-list">
+                                <li>This link will expire in <strong>1 hour</strong> for your security</li>
+                                <li>If you didn't request this reset, please ignore this email</li>
+                                <li>Never share this link with anyone</li>
+                                <li>Only use this link from a trusted device</li>
+                            </ul>
+                        </div>
+                        
+                        <div class="security-note">
+                            <div class="security-note-title">🛡️ Security Tip</div>
+                            <p>Choose a strong password with at least 8 characters, including uppercase letters, lowercase letters, numbers, and special characters.</p>
+                        </div>
+                        
+                        <div class="message">
+                            If the button above doesn't work, you can copy and paste this link into your browser:
+                        </div>
+                        
+                        <div class="backup-link">
+                            %s
+                        </div>
+                        
+                        <div class="message">
+                            If you didn't request a password reset, you can safely ignore this email. Your password will remain unchanged.
+                        </div>
+                    </div>
+                    <div class="footer">
+                        <p><strong>© 2024 KnowAllRates. All rights reserved.</strong></p>
+                        <p>This is an automated email. Please do not reply to this message.</p>
+                        <p>Need help? Contact our support team at support@knowallrates.com</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """;
+
+    // From EmailService.buildPasswordResetConfirmationTemplate before templates/email/ existed
+    private static final String LEGACY_PASSWORD_RESET_CONFIRMATION_FORMAT = """
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Password Reset Successful - KnowAllRates</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body { 
+                        font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; 
+                        line-height: 1.6; 
+                        color: #333; 
+                        background-color: #f8fafc;
+                    }
+                    .container { 
+                        max-width: 600px; 
+                        margin: 40px auto; 
+                        background: white; 
+                        border-radius: 12px; 
+                        overflow: hidden; 
+                        box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);
+                    }
+                    .header { 
+                        background: linear-gradient(135deg, #10b981, #059669); 
+                        color: white; 
+                        padding: 40px 30px; 
+                        text-align: center; 
+                    }
+                    .header h1 { font-size: 28px; margin-bottom: 8px; font-weight: 700; }
+                    .header p { font-size: 16px; opacity: 0.9; }
+                    .content { padding: 40px 30px; }
+                    .greeting { font-size: 18px; font-weight: 600; margin-bottom: 20px; color: #1f2937; }
+                    .message { font-size: 16px; margin-bottom: 20px; color: #4b5563; }
+                    .success { 
+                        background: #d1fae5; 
+                        border: 1px solid #10b981; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                        text-align: center;
+                    }
+                    .success-title { font-weight: 600; color: #065f46; margin-bottom: 8px; font-size: 18px; }
+                    .success-message { color: #065f46; font-size: 16px; }
+                    .next-steps { 
+                        background: #eff6ff; 
+                        border: 1px solid #3b82f6; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                    }
+                    .next-steps-title { font-weight: 600; color: #1e40af; margin-bottom: 12px; }
+                    .next-steps ul { color: #1e40af; font-size: 14px; }
+                    .next-steps li { margin: 8px 0; }
+                    .security-reminder { 
+                        background: #fef3c7; 
+                        border: 1px solid #f59e0b; 
+                        border-radius: 8px; 
+                        padding: 20px; 
+                        margin: 30px 0; 
+                    }
+                    .security-reminder-title { font-weight: 600; color: #92400e; margin-bottom: 12px; }
+                    .security-reminder ul { color: #92400e; font-size: 14px; }
+                    .security-reminder li { margin: 8px 0; }
+                    .footer { 
+                        background: #f9fafb; 
+                        padding: 30px; 
+                        text-align: center; 
+                        border-top: 1px solid #e5e7eb; 
+                    }
+                    .footer p { font-size: 14px; color: #6b7280; margin: 4px 0; }
+                    @media (max-width: 600px) {
+                        .container { margin: 20px; }
+                        .header, .content { padding: 30px 20px; }
+                    }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="header">
+                        <h1>✅ Password Reset Successful</h1>
+                        <p>KnowAllRates - Gold Rate Tracker</p>
+                    </div>
+                    <div class="content">
+                        <div class="greeting">Hello %s,</div>
+                        
+                        <div class="success">
+                            <div class="success-title">🎉 Success!</div>
+                            <div class="success-message">Your password has been successfully reset on %s.</div>
+                        </div>
+                        
+                        <div class="message">
+                            Your KnowAllRates account password has been successfully updated. You can now sign in with your new password and continue tracking live gold, silver, and cryptocurrency rates.
+                        </div>
+                        
+                        <div class="next-steps">
+                            <div class="next-steps-title">🚀 What's Next?</div>
+                            <ul>
+                                <li>Sign in to your account with your new password</li>
+                                <li>Continue tracking live gold, silver, and cryptocurrency rates</li>
+                                <li>Access all your premium features and settings</li>
+                                <li>Set up price alerts for your favorite assets</li>
+                            </ul>
+                        </div>
+                        
+                        <div class="security-reminder">
+                            <div class="security-reminder-title">🔒 Security Reminder</div>
+                            <ul>
+                                <li>Keep your password secure and don't share it with anyone</li>
+                                <li>Use a strong, unique password for your account</li>
+                                <li>Consider enabling two-factor authentication when available</li>
+                                <li>Sign out from shared or public devices</li>
+                            </ul>
+                        </div>
+                        
+                        <div class="message">
+                            If you didn't make this change or have any concerns about your account security, please contact our support team immediately at support@knowallrates.com.
+                        </div>
+                    </div>
+                    <div class="footer">
+                        <p><strong>© 2024 KnowAllRates. All rights reserved.</strong></p>
+                        <p>This is an automated email. Please do not reply to this message.</p>
+                        <p>Need help? Contact our support team at support@knowallrates.com</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """;
+
+    private EmailService emailService;
+    private Order order;
+    private List<OrderService.CartItemData> items;
+
+    @BeforeEach
+    void setUp() {
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "frontendUrl", "https://knowallrates.com");
+        emailService.loadTemplates();
+
+        order = new Order();
+        order.setOrderId("ORD-20260314-0042");
+        order.setCreatedAt(NOW.minusMinutes(3));
+        order.setPaymentMethod("CARD");
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setTaxAmount(1843.2);
+        order.setDiscountAmount(512.5);
+        order.setShippingAmount(0.0);
+        order.setTotalAmount(12083.2);
+        order.setShippingAddress("12 MG Road, Bengaluru 560001");
+
+        items = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            OrderService.CartItemData item = new OrderService.CartItemData();
+            item.productId = (long) i;
+            item.productName = "Gold Coin " + i + "g";
+            item.quantity = i;
+            item.unitPrice = 2560.0 * i;
+            item.totalPrice = 2560.0 * i * i;
+            items.add(item);
+        }
+    }
+
+    @Test
+    void precompiledTemplateMatchesLegacyOutput() {
+        assertEquals(renderLegacy(), emailService.buildOrderConfirmationTemplate("Asha", order, items, NOW));
+    }
+
+    @Test
+    void passwordResetTemplateMatchesLegacyOutput() {
+        String resetLink = "https://knowallrates.com/auth/reset-password?token=3f2a9c1e-7b4d";
+        String currentTime = NOW.format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm"));
+
+        assertEquals(String.format(LEGACY_PASSWORD_RESET_FORMAT, "Asha", currentTime, resetLink, resetLink),
+                emailService.buildPasswordResetEmailTemplate("Asha", resetLink, NOW));
+    }
+
+    @Test
+    void passwordResetConfirmationTemplateMatchesLegacyOutput() {
+        String currentTime = NOW.format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm"));
+
+        assertEquals(String.format(LEGACY_PASSWORD_RESET_CONFIRMATION_FORMAT, "Asha", currentTime),
+                emailService.buildPasswordResetConfirmationTemplate("Asha", NOW));
+    }
+
+    // The legacy code pasted names into the HTML as is; the templates escape them
+    @Test
+    void passwordResetTemplatesEscapeTheUserName() {
+        String userName = "<b>O'Neil & Sons</b>";
+        String escaped = "&lt;b&gt;O&#39;Neil &amp; Sons&lt;/b&gt;";
+
+        String reset = emailService.buildPasswordResetEmailTemplate(userName, "https://knowallrates.com/r?token=t", NOW);
+        String confirmation = emailService.buildPasswordResetConfirmationTemplate(userName, NOW);
+
+        assertTrue(reset.contains(escaped) && !reset.contains(userName));
+        assertTrue(confirmation.contains(escaped) && !confirmation.contains(userName));
+    }
+
+    @Test
+    void moneyRoundsLikeFormatAtHalfCentBoundaries() {
+        for (double amount : new double[] {0.0, 0.005, 1.005, 1.015, 2.675, 1.115, 10.125, 1234.565, 99999.995, 12083.2}) {
+            StringBuilder out = new StringBuilder();
+            EmailTemplate.appendMoney(out, amount);
+            assertEquals(String.format("%.2f", amount), out.toString(), "amount " + amount);
+        }
+    }
+
+    @Test
+    void precompiledTemplateRendersWithLessTimeAndAllocation() {
+        Result legacy = measure(this::renderLegacy);
+        Result compiled = measure(() -> emailService.buildOrderConfirmationTemplate("Asha", order, items, NOW));
+
+        // Allocation is deterministic enough to assert on; timings only go into the failure message
+        if (legacy.bytesPerOp > 0) {
+            assertTrue(compiled.bytesPerOp < legacy.bytesPerOp,
+                    "precompiled render allocated " + compiled.bytesPerOp + " B/op (" + compiled.nanosPerOp + " ns/op) vs "
+                            + legacy.bytesPerOp + " B/op (" + legacy.nanosPerOp + " ns/op)");
+        }
+    }
+
+    // The pre-template implementation: formatter per call, String.format per row and for the page. Its item
+    // rows printed item.productId; the templates print the product name on purpose, so that one argument is
+    // swapped here and everything else must match byte for byte.
+    private String renderLegacy() {
+        String currentTime = NOW.format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm"));
+        String orderDate = order.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm"));
+
+        StringBuilder itemsHtml = new StringBuilder();
+        for (OrderService.CartItemData item : items) {
+            itemsHtml.append(String.format(LEGACY_ITEM_FORMAT, item.productName, item.quantity, item.totalPrice, item.unitPrice));
+        }
+
+        String discountRow = "";
+        if (order.getDiscountAmount() > 0) {
+            discountRow = String.format("<div><span>Discount:</span><span style=\"color: #10b981;\">-₹%.2f</span></div>", order.getDiscountAmount());
+        }
+        String shippingCost = order.getShippingAmount() > 0 ? String.format("₹%.2f", order.getShippingAmount()) : "Free";
+
+        return String.format(LEGACY_ORDER_FORMAT,
+                "Asha", currentTime, order.getOrderId(), orderDate,
+                order.getPaymentMethod() != null ? order.getPaymentMethod() : "UPI", order.getStatus().toString(),
+                itemsHtml.toString(), order.getTotalAmount() - order.getTaxAmount(), discountRow, order.getTaxAmount(),
+                shippingCost, order.getTotalAmount(), order.getShippingAddress(), "https://knowallrates.com/shop/orders");
+    }
+
+    private static Result measure(Supplier<String> render) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += render.get().length();
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = allocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += render.get().length();
+        }
+        long elapsed = System.nanoTime() - started;
+        long bytes = allocatedBytes(threadId) - bytesBefore;
+
+        assertTrue(sink > 0);
+        return new Result(elapsed / ITERATIONS, bytes < 0 ? 0 : bytes / ITERATIONS);
+    }
+
+    // -1 when the JVM does not expose per-thread allocation counters
+    private static long allocatedBytes(long threadId) {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getThreadAllocatedBytes(threadId);
+        }
+        return -1;
+    }
+
+    private record Result(long nanosPerOp, long bytesPerOp) {}
+}
@@ -0,0 +1,217 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.dto.MailDispatcherStats;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailDispatcherTest {
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        server.close();
+    }
+
+    @Test
+    void sendsQueuedMessagesOverOneConnection() throws Exception {
+        startDispatcher(100);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(dispatcher.submit(message("customer" + i + "@example.com")));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        MailDispatcherStats stats = dispatcher.getStats();
+        assertEquals(30, server.messages.size());
+        assertEquals(1, server.connections.get());
+        assertEquals(30, stats.getSent());
+        assertTrue(stats.getBatches() <= 30);
+        assertEquals(30, stats.getSendLatency().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(30, stats.getTotalLatency().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void recyclesConnectionAfterMessageLimit() {
+        startDispatcher(10);
+
+        for (int i = 0; i < 25; i++) {
+            dispatcher.send(message("customer" + i + "@example.com"));
+        }
+
+        assertEquals(25, server.messages.size());
+        assertEquals(3, server.connections.get());
+        assertEquals(0, dispatcher.getStats().getReconnects());
+    }
+
+    @Test
+    void reconnectsWhenServerDropsTheConnection() {
+        server.dropAfterMessages = 5;
+        startDispatcher(100);
+
+        for (int i = 0; i < 12; i++) {
+            dispatcher.send(message("customer" + i + "@example.com"));
+        }
+
+        assertEquals(12, server.messages.size());
+        assertEquals(3, server.connections.get());
+        assertEquals(2, dispatcher.getStats().getReconnects());
+    }
+
+    @Test
+    void refusedRecipientFailsOnlyThatMessage() {
+        startDispatcher(100);
+
+        assertThrows(RuntimeException.class, () -> dispatcher.send(message("bounce@example.com")));
+        dispatcher.send(message("customer@example.com"));
+
+        MailDispatcherStats stats = dispatcher.getStats();
+        assertEquals(1, server.messages.size());
+        assertEquals(1, stats.getFailed());
+        assertEquals(1, stats.getSent());
+        assertEquals(1, server.connections.get());
+    }
+
+    private void startDispatcher(int maxMessagesPerConnection) {
+        dispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(dispatcher, "maxMessagesPerConnection", maxMessagesPerConnection);
+        ReflectionTestUtils.setField(dispatcher, "idleCloseMs", 30000L);
+        ReflectionTestUtils.setField(dispatcher, "submitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "sendTimeoutMs", 10000L);
+        dispatcher.start();
+    }
+
+    private MimeMessage message(String to) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("noreply@knowallrates.com");
+            helper.setTo(to);
+            helper.setSubject("Order Confirmation");
+            helper.setText("<p>Thanks for your order</p>", true);
+            return message;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Just enough SMTP for JavaMail: no TLS, no AUTH. Recipients containing "bounce" are refused, and
+    // dropAfterMessages makes the server hang up without QUIT, like a provider closing an idle session.
+    private static final class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket socket = new ServerSocket(0);
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private volatile int dropAfterMessages = Integer.MAX_VALUE;
+
+        private FakeSmtpServer() throws IOException {
+            Thread.ofPlatform().daemon().name("fake-smtp").start(this::acceptLoop);
+        }
+
+        private int getPort() {
+            return socket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    connections.incrementAndGet();
+                    Thread.ofPlatform().daemon().start(() -> serve(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                reply(out, "220 fake-smtp ready");
+                int received = 0;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 fake-smtp");
+                    } else if (command.startsWith("RCPT") && command.contains("BOUNCE")) {
+                        reply(out, "550 No such user");
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 Queued");
+                        if (++received >= dropAfterMessages) {
+                            return;
+                        }
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
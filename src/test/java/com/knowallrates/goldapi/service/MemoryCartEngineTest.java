@@ -0,0 +1,243 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.KnowallratesApplication;
+import com.knowallrates.goldapi.dto.CartResponse;
+import com.knowallrates.goldapi.model.Asset;
+import com.knowallrates.goldapi.model.Product;
+import com.knowallrates.goldapi.model.User;
+import com.knowallrates.goldapi.repository.AssetRepository;
+import com.knowallrates.goldapi.repository.ProductRepository;
+import com.knowallrates.goldapi.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Write-behind of the in-memory cart engine: what a flush writes, what survives a rolled-back
+// checkout, a line removed while its insert is in flight, and idle eviction. The scheduled flush runs
+// once at startup and then not again during the tests, which call flushDirty() themselves.
+@SpringBootTest(classes = KnowallratesApplication.class)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "app.cart.engine=memory",
+        "app.cart.memory.flush-ms=3600000"
+})
+class MemoryCartEngineTest {
+
+    @Autowired
+    private MemoryCartEngine engine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void flushWritesOnlyWhatChanged() {
+        String email = createUser();
+        Long ring = createProduct("Ring");
+        Long chain = createProduct("Chain");
+        Long bangle = createProduct("Bangle");
+
+        engine.addToCart(email, ring, 1);
+        CartResponse cart = engine.addToCart(email, chain, 1);
+        engine.flushDirty();
+        assertEquals(Map.of(ring, 1, chain, 1), storedQuantities(email));
+
+        engine.updateCartItem(email, itemId(cart, ring), 3);
+        engine.removeFromCart(email, itemId(cart, chain));
+        engine.addToCart(email, bangle, 2);
+
+        // Delete of the chain, insert of the bangle, quantity of the ring, cart total
+        assertEquals(4, countStatements(engine::flushDirty));
+        assertEquals(Map.of(ring, 3, bangle, 2), storedQuantities(email));
+        assertEquals(3 * 1000.0 + 2 * 1000.0, storedTotal(email), 0.001);
+
+        // Nothing changed since
+        assertEquals(0, countStatements(engine::flushDirty));
+    }
+
+    @Test
+    void rolledBackCheckoutLeavesTheCartToTheNextFlush() {
+        String email = createUser();
+        User user = userRepository.findByEmail(email).orElseThrow();
+        Long ring = createProduct("Ring");
+        Long chain = createProduct("Chain");
+        engine.addToCart(email, ring, 2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            engine.flushForCheckout(user);
+            // Written inside the order's transaction, and the cart is frozen until it completes
+            assertEquals(Map.of(ring, 2), storedQuantities(email));
+            assertThrows(RuntimeException.class, () -> engine.addToCart(email, chain, 1));
+            assertDoesNotThrow(() -> engine.getCart(email));
+            status.setRollbackOnly();
+        });
+        assertTrue(storedQuantities(email).isEmpty());
+
+        engine.addToCart(email, chain, 1);
+        engine.flushDirty();
+        assertEquals(Map.of(ring, 2, chain, 1), storedQuantities(email));
+    }
+
+    @Test
+    void committedCheckoutDropsTheCartFromMemory() {
+        String email = createUser();
+        User user = userRepository.findByEmail(email).orElseThrow();
+        Long ring = createProduct("Ring");
+        engine.addToCart(email, ring, 1);
+
+        transactionTemplate.executeWithoutResult(status -> engine.flushForCheckout(user));
+
+        assertFalse(carts().containsKey(user.getId()));
+        assertEquals(Map.of(ring, 1), storedQuantities(email));
+    }
+
+    @Test
+    void lineRemovedWhileBeingInsertedIsDeletedByTheNextFlush() throws Exception {
+        String email = createUser();
+        Long ring = createProduct("Ring");
+        Long chain = createProduct("Chain");
+        engine.addToCart(email, ring, 1);
+        engine.flushDirty();
+        CartResponse cart = engine.addToCart(email, chain, 1);
+
+        // Hold the cart row so the flush stops after inserting the chain, remove the chain meanwhile
+        CompletableFuture<Void>[] flush = new CompletableFuture[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT c.id FROM carts c JOIN users u ON u.id = c.user_id WHERE u.email = ? FOR UPDATE",
+                    Long.class, email);
+            flush[0] = CompletableFuture.runAsync(engine::flushDirty);
+            sleep(500);
+            engine.removeFromCart(email, itemId(cart, chain));
+        });
+        flush[0].get(10, TimeUnit.SECONDS);
+
+        // The flush wrote the chain it had snapshotted; the removal is still to be written
+        assertEquals(Map.of(ring, 1, chain, 1), storedQuantities(email));
+        engine.flushDirty();
+        assertEquals(Map.of(ring, 1), storedQuantities(email));
+        assertEquals(1, engine.getCart(email).getItems().size());
+    }
+
+    @Test
+    void idleCartIsWrittenThenDroppedAndReloadedOnNextUse() {
+        String email = createUser();
+        Long userId = userRepository.findByEmail(email).orElseThrow().getId();
+        Long ring = createProduct("Ring");
+        engine.addToCart(email, ring, 2);
+
+        Object idleEvictMs = ReflectionTestUtils.getField(engine, "idleEvictMs");
+        ReflectionTestUtils.setField(engine, "idleEvictMs", -1L);
+        try {
+            engine.flushDirty();
+        } finally {
+            ReflectionTestUtils.setField(engine, "idleEvictMs", idleEvictMs);
+        }
+
+        assertFalse(carts().containsKey(userId));
+        assertEquals(Map.of(ring, 2), storedQuantities(email));
+
+        CartResponse reloaded = engine.getCart(email);
+        assertTrue(carts().containsKey(userId));
+        assertEquals(1, reloaded.getItems().size());
+        assertEquals(2, reloaded.getItems().get(0).getQuantity());
+        // Reloaded lines carry their database ids
+        assertTrue(reloaded.getItems().get(0).getId() > 0);
+    }
+
+    private long countStatements(Runnable call) {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Map<Long, ?> carts() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(engine, "carts");
+    }
+
+    private static Long itemId(CartResponse cart, Long productId) {
+        return cart.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private Map<Long, Integer> storedQuantities(String email) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT i.product_id, i.quantity FROM cart_items i JOIN carts c ON c.id = i.cart_id "
+                        + "JOIN users u ON u.id = c.user_id WHERE u.email = ?",
+                row -> {
+                    quantities.put(row.getLong(1), row.getInt(2));
+                }, email);
+        return quantities;
+    }
+
+    private double storedTotal(String email) {
+        return jdbcTemplate.queryForObject("SELECT c.total_amount FROM carts c JOIN users u ON u.id = c.user_id WHERE u.email = ?",
+                Double.class, email);
+    }
+
+    private String createUser() {
+        String email = "cart-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(new User(email, "secret", "Cart Tester", "9000000000", User.Role.USER));
+        return email;
+    }
+
+    private Long createProduct(String name) {
+        return transactionTemplate.execute(status -> {
+            Asset gold = assetRepository.findByName("gold")
+                    .orElseGet(() -> assetRepository.save(new Asset("gold", "Gold")));
+            Product product = new Product(name, "22K " + name.toLowerCase(), gold, 1000.0, 5.0, "22K", "jewellery");
+            product.setStockQuantity(10);
+            return productRepository.save(product).getId();
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
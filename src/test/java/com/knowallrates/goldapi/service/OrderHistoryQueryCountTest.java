@@ -0,0 +1,140 @@
+package com.knowallrates.goldapi.service;
+
+import com.knowallrates.goldapi.KnowallratesApplication;
+import com.knowallrates.goldapi.dto.OrderResponse;
+import com.knowallrates.goldapi.model.Asset;
+import com.knowallrates.goldapi.model.Order;
+import com.knowallrates.goldapi.model.OrderItem;
+import com.knowallrates.goldapi.model.Product;
+import com.knowallrates.goldapi.model.User;
+import com.knowallrates.goldapi.repository.AssetRepository;
+import com.knowallrates.goldapi.repository.OrderRepository;
+import com.knowallrates.goldapi.repository.ProductRepository;
+import com.knowallrates.goldapi.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Order history must not issue a query per order or per item: counts prepared statements with
+// Hibernate statistics around the service calls. data.sql is PostgreSQL-flavoured (INTERVAL '10 days')
+// and not needed here, so it is skipped; Hibernate creates the schema.
+@SpringBootTest(classes = KnowallratesApplication.class)
+@TestPropertySource(properties = "spring.sql.init.mode=never")
+class OrderHistoryQueryCountTest {
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void orderPageUsesTheSameStatementsForFewOrManyOrders() {
+        String fewOrders = createUserWithOrders(2);
+        String manyOrders = createUserWithOrders(8);
+
+        long few = countStatements(() -> orderService.getUserOrdersPaginated(fewOrders, PageRequest.of(0, 10)));
+        long many = countStatements(() -> orderService.getUserOrdersPaginated(manyOrders, PageRequest.of(0, 10)));
+
+        // User lookup, orders with their user, items with product summaries
+        assertEquals(3, few);
+        assertEquals(3, many);
+    }
+
+    @Test
+    void orderPageAddsOnlyTheCountQueryWhenMorePagesFollow() {
+        String email = createUserWithOrders(8);
+
+        Page<OrderResponse>[] page = new Page[1];
+        long statements = countStatements(() -> page[0] = orderService.getUserOrdersPaginated(email, PageRequest.of(0, 5)));
+
+        assertEquals(4, statements);
+        assertEquals(8, page[0].getTotalElements());
+        assertEquals(5, page[0].getContent().size());
+        page[0].getContent().forEach(order -> assertEquals(ITEMS_PER_ORDER, order.getItems().size()));
+        assertEquals("Chain 0", page[0].getContent().get(0).getItems().get(0).getProductName());
+    }
+
+    @Test
+    void fullHistoryAndSingleOrderUseTwoQueriesAfterTheUser() {
+        String email = createUserWithOrders(6);
+
+        List<OrderResponse>[] all = new List[1];
+        assertEquals(3, countStatements(() -> all[0] = orderService.getUserOrders(email)));
+        assertEquals(6, all[0].size());
+
+        String orderId = all[0].get(0).getOrderId();
+        assertEquals(2, countStatements(() -> orderService.getUserOrder(email, orderId)));
+        assertEquals(ITEMS_PER_ORDER, orderService.getUserOrder(email, orderId).orElseThrow().getItems().size());
+    }
+
+    private long countStatements(Runnable call) {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String createUserWithOrders(int orderCount) {
+        String email = "history-" + UUID.randomUUID() + "@example.com";
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(new User(email, "secret", "History Tester", "9000000000", User.Role.USER));
+            Asset gold = assetRepository.findByName("gold")
+                    .orElseGet(() -> assetRepository.save(new Asset("gold", "Gold")));
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                products.add(productRepository.save(new Product("Chain " + i, "22K chain", gold, 1000.0 + i, 5.0, "22K", "chains")));
+            }
+
+            for (int i = 0; i < orderCount; i++) {
+                Order order = new Order("ORD-" + UUID.randomUUID().toString().substring(0, 8), user, 3000.0, 3540.0, "1 Main St");
+                List<OrderItem> items = new ArrayList<>();
+                for (Product product : products) {
+                    items.add(new OrderItem(order, product, 1, product.getBasePrice()));
+                }
+                order.setItems(items);
+                orderRepository.save(order);
+            }
+        });
+        return email;
+    }
+}